@@ -0,0 +1,71 @@
+package com.example.medical.ai;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/ai/logs")
+public class AIRequestLogController {
+
+    private final AIRequestLogRepository repository;
+    private final Duration maxRange;
+
+    public AIRequestLogController(AIRequestLogRepository repository,
+                                  @Value("${app.ai-logs.query.max-range-days:31}") long maxRangeDays) {
+        this.repository = repository;
+        this.maxRange = Duration.ofDays(maxRangeDays);
+    }
+
+    /** Requires a time range so the query only touches the partitions it covers. */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> list(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(required = false) String requestType,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        OffsetDateTime until = to != null ? to : OffsetDateTime.now();
+        if (!from.isBefore(until) || Duration.between(from, until).compareTo(maxRange) > 0) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "from must be before to and at most " + maxRange.toDays() + " days earlier"));
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        Page<AIRequestLog> logPage = requestType != null
+            ? repository.findByRequestTypeAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(requestType, from, until, pageable)
+            : repository.findByCreatedAtGreaterThanEqualAndCreatedAtLessThan(from, until, pageable);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("content", logPage.getContent().stream()
+            .map(this::mapToResponse)
+            .toList());
+        response.put("totalPages", logPage.getTotalPages());
+        response.put("totalElements", logPage.getTotalElements());
+        response.put("currentPage", logPage.getNumber());
+        return ResponseEntity.ok(response);
+    }
+
+    private Map<String, Object> mapToResponse(AIRequestLog log) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", log.getId());
+        response.put("requestType", log.getRequestType());
+        response.put("status", log.getStatus());
+        response.put("responseSummary", log.getResponseSummary());
+        response.put("modelVersion", log.getModelVersion());
+        response.put("createdAt", log.getCreatedAt());
+        return response;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.medical.ai;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the daily partitions of {@code ai_request_logs} ahead of the clock and enforces
+ * retention by dropping whole partitions, so expiry never runs a {@code DELETE} against the
+ * table. Runs on one node at a time, guarded by a Postgres advisory lock.
+ */
+@Component
+public class AIRequestLogPartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(AIRequestLogPartitionManager.class);
+
+    static final String TABLE = "ai_request_logs";
+    private static final String HISTORY_PARTITION = TABLE + "_history";
+    private static final Pattern DAILY_PARTITION = Pattern.compile(TABLE + "_p(\\d{8})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final long LOCK_KEY = 0x61695f6c6f6773L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int precreateDays;
+    private final int retentionDays;
+    private final String lockTimeout;
+    private final Counter createdCounter;
+    private final Counter droppedCounter;
+
+    public AIRequestLogPartitionManager(JdbcTemplate jdbcTemplate,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${app.ai-logs.partitions.precreate-days:7}") int precreateDays,
+                                        @Value("${app.ai-logs.retention-days:90}") int retentionDays,
+                                        @Value("${app.ai-logs.partitions.lock-timeout-ms:5000}") long lockTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.precreateDays = precreateDays;
+        this.retentionDays = retentionDays;
+        this.lockTimeout = lockTimeoutMs + "ms";
+        this.createdCounter = Counter.builder("medical.ai.logs.partitions")
+            .description("ai_request_logs partitions created or dropped")
+            .tag("action", "created")
+            .register(meterRegistry);
+        this.droppedCounter = Counter.builder("medical.ai.logs.partitions")
+            .description("ai_request_logs partitions created or dropped")
+            .tag("action", "dropped")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${app.ai-logs.partitions.cron:0 15 * * * *}")
+    public void maintain() {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    if (!tryLock(statement)) {
+                        return null;
+                    }
+                    try {
+                        // Partition DDL locks the parent; give up rather than queue inserts behind it
+                        statement.execute("SET lock_timeout = '" + lockTimeout + "'");
+                        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+                        createAhead(statement, today);
+                        dropExpired(connection, statement, today.minusDays(retentionDays));
+                    } finally {
+                        statement.execute("RESET lock_timeout");
+                        statement.execute("SELECT pg_advisory_unlock(" + LOCK_KEY + ")");
+                    }
+                }
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            logger.warn("ai_request_logs partition maintenance failed, retrying on the next run", ex);
+        }
+    }
+
+    private void createAhead(Statement statement, LocalDate today) throws SQLException {
+        for (int i = 0; i <= precreateDays; i++) {
+            LocalDate day = today.plusDays(i);
+            String partition = TABLE + "_p" + day.format(SUFFIX);
+            if (exists(statement, partition)) {
+                continue;
+            }
+            statement.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + TABLE
+                + " FOR VALUES FROM ('" + day + " 00:00:00+00') TO ('" + day.plusDays(1) + " 00:00:00+00')");
+            createdCounter.increment();
+            logger.info("Created partition {}", partition);
+        }
+    }
+
+    private void dropExpired(Connection connection, Statement statement, LocalDate cutoff) throws SQLException {
+        List<String> expired = new ArrayList<>();
+        try (ResultSet partitions = statement.executeQuery("SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = '" + TABLE + "'::regclass")) {
+            while (partitions.next()) {
+                String partition = partitions.getString(1);
+                Matcher matcher = DAILY_PARTITION.matcher(partition);
+                // A day's partition expires once its whole range is before the cutoff
+                if (matcher.matches() && LocalDate.parse(matcher.group(1), SUFFIX).plusDays(1).compareTo(cutoff) <= 0) {
+                    expired.add(partition);
+                }
+            }
+        }
+        if (exists(statement, HISTORY_PARTITION) && historyExpired(connection, cutoff)) {
+            expired.add(HISTORY_PARTITION);
+        }
+        for (String partition : expired) {
+            statement.execute("DROP TABLE " + partition);
+            droppedCounter.increment();
+            logger.info("Dropped expired partition {}", partition);
+        }
+    }
+
+    private static boolean historyExpired(Connection connection, LocalDate cutoff) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement("SELECT max(created_at) < ? FROM " + HISTORY_PARTITION)) {
+            query.setTimestamp(1, Timestamp.from(cutoff.atStartOfDay(ZoneOffset.UTC).toInstant()));
+            try (ResultSet result = query.executeQuery()) {
+                result.next();
+                // An empty history partition returns NULL and is dropped as well
+                boolean older = result.getBoolean(1);
+                return older || result.wasNull();
+            }
+        }
+    }
+
+    private static boolean tryLock(Statement statement) throws SQLException {
+        try (ResultSet result = statement.executeQuery("SELECT pg_try_advisory_lock(" + LOCK_KEY + ")")) {
+            return result.next() && result.getBoolean(1);
+        }
+    }
+
+    private static boolean exists(Statement statement, String table) throws SQLException {
+        try (ResultSet result = statement.executeQuery("SELECT to_regclass('" + table + "') IS NOT NULL")) {
+            return result.next() && result.getBoolean(1);
+        }
+    }
+}
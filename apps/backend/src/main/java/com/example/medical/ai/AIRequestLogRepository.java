@@ -1,7 +1,22 @@
 package com.example.medical.ai;
 
+import java.time.OffsetDateTime;
 import java.util.UUID;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+/**
+ * {@code ai_request_logs} is partitioned by day on {@code created_at}; queries should bound
+ * it on both sides so Postgres only scans the partitions covering the range.
+ */
 public interface AIRequestLogRepository extends JpaRepository<AIRequestLog, UUID> {
+
+    Page<AIRequestLog> findByCreatedAtGreaterThanEqualAndCreatedAtLessThan(OffsetDateTime from, OffsetDateTime to,
+                                                                           Pageable pageable);
+
+    Page<AIRequestLog> findByRequestTypeAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(String requestType,
+                                                                                         OffsetDateTime from,
+                                                                                         OffsetDateTime to,
+                                                                                         Pageable pageable);
 }
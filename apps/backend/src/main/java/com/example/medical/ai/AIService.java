@@ -5,34 +5,48 @@ import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeoutException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
 
 @Service
 public class AIService {
 
     private final WebClient webClient;
     private final AIRequestLogRepository logRepository;
+    private final AdaptiveConcurrencyLimiter limiter;
 
     public AIService(@Value("${ai.service.base-url:http://localhost:8000}") String baseUrl,
-                     AIRequestLogRepository logRepository) {
+                     AIRequestLogRepository logRepository,
+                     AdaptiveConcurrencyLimiter limiter) {
         this.webClient = WebClient.builder()
             .baseUrl(baseUrl)
             .build();
         this.logRepository = logRepository;
+        this.limiter = limiter;
     }
 
     public Map<String, Object> analyzeReport(UUID reportId) {
-        return callEndpoint("/ocr/analyze-report", Map.of("report_id", reportId.toString()));
+        return callEndpoint("/ocr/analyze-report", Map.of("report_id", reportId.toString()), null);
+    }
+
+    /**
+     * Background variant of {@link #analyzeReport(UUID)} that waits up to {@code maxWait} for a
+     * limiter slot instead of failing fast; still throws {@code ServiceOverloadedException} if none frees up.
+     */
+    public Map<String, Object> analyzeReport(UUID reportId, Duration maxWait) {
+        return callEndpoint("/ocr/analyze-report", Map.of("report_id", reportId.toString()), maxWait);
     }
 
     public Map<String, Object> chat(UUID patientId, String question) {
         Map<String, Object> aiResponse = callEndpoint("/chat", Map.of(
             "patient_id", patientId != null ? patientId.toString() : "",
             "question", question
-        ));
+        ), null);
         
         // Map AI service response to frontend expected format
         // AI service returns: { "answer": "...", "citations": [...], "safety_banner": "...", "model_version": "..." }
@@ -49,27 +63,29 @@ public class AIService {
             "symptoms", symptoms,
             "demographics", demographics != null ? demographics : Map.of(),
             "vitals", vitals != null ? vitals : Map.of()
-        ));
+        ), null);
     }
 
-    private Map<String, Object> callEndpoint(String path, Map<String, Object> payload) {
+    private Map<String, Object> callEndpoint(String path, Map<String, Object> payload, Duration maxWait) {
+        // Rejected calls fail with a 503 and never reach ai-service
+        AdaptiveConcurrencyLimiter.Permit permit = maxWait != null ? limiter.acquire(maxWait) : limiter.acquire();
+        Map<String, Object> response;
         try {
             @SuppressWarnings("unchecked")
-            Map<String, Object> response = webClient.post()
+            Map<String, Object> body = webClient.post()
                 .uri(path)
                 .bodyValue(payload)
                 .retrieve()
                 .bodyToMono(Map.class)
                 .timeout(Duration.ofSeconds(10))
                 .block();
-            AIRequestLog log = new AIRequestLog();
-            log.setRequestType(path);
-            log.setStatus("SUCCESS");
-            String summary = response != null ? response.toString() : null;
-            log.setResponseSummary(summary != null && summary.length() > 250 ? summary.substring(0, 250) : summary);
-            logRepository.save(log);
-            return response;
+            response = body;
         } catch (Exception ex) {
+            if (isOverloadSignal(ex)) {
+                permit.dropped();
+            } else {
+                permit.ignore();
+            }
             AIRequestLog log = new AIRequestLog();
             log.setRequestType(path);
             log.setStatus("ERROR");
@@ -78,5 +94,21 @@ public class AIService {
             logRepository.save(log);
             throw new ExternalServiceException("AI service call failed", ex);
         }
+        permit.success();
+        AIRequestLog log = new AIRequestLog();
+        log.setRequestType(path);
+        log.setStatus("SUCCESS");
+        String summary = response != null ? response.toString() : null;
+        log.setResponseSummary(summary != null && summary.length() > 250 ? summary.substring(0, 250) : summary);
+        logRepository.save(log);
+        return response;
+    }
+
+    private boolean isOverloadSignal(Exception ex) {
+        Throwable cause = Exceptions.unwrap(ex);
+        if (cause instanceof TimeoutException || cause instanceof WebClientRequestException) {
+            return true;
+        }
+        return cause instanceof WebClientResponseException response && response.getStatusCode().is5xxServerError();
     }
 }
@@ -0,0 +1,223 @@
+package com.example.medical.ai;
+
+import com.example.medical.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gradient-based concurrency limit for calls to ai-service.
+ * <p>
+ * The limit tracks the ratio between a long-term RTT baseline and the recent RTT: while
+ * recent latency stays close to the baseline the limit grows by a queue allowance of
+ * {@code sqrt(limit)}, and once requests start queueing inside ai-service the gradient
+ * drops below one and the limit shrinks. The baseline slowly follows the short-term RTT,
+ * so a model swap that changes the service's natural latency resets the limit instead of
+ * pinning it to the old minimum.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long retryAfterSeconds;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejectedCounter;
+    // A lock rather than a monitor so waiting virtual threads do not pin their carrier
+    private final ReentrantLock capacityLock = new ReentrantLock();
+    private final Condition capacityFreed = capacityLock.newCondition();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(@Value("${ai.service.limiter.initial-limit:20}") int initialLimit,
+                                      @Value("${ai.service.limiter.min-limit:4}") int minLimit,
+                                      @Value("${ai.service.limiter.max-limit:200}") int maxLimit,
+                                      @Value("${ai.service.limiter.retry-after-seconds:1}") long retryAfterSeconds,
+                                      MeterRegistry meterRegistry) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+
+        Gauge.builder("ai.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+            .description("Current adaptive concurrency limit for ai-service calls")
+            .register(meterRegistry);
+        Gauge.builder("ai.limiter.inflight", inFlight, AtomicInteger::get)
+            .description("ai-service calls currently in flight")
+            .register(meterRegistry);
+        Gauge.builder("ai.limiter.rtt.short", this, l -> l.rttSeconds(false))
+            .description("Short-window RTT estimate for ai-service calls")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge.builder("ai.limiter.rtt.long", this, l -> l.rttSeconds(true))
+            .description("Long-window RTT baseline for ai-service calls")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("ai.limiter.rejected")
+            .description("ai-service calls rejected by the concurrency limiter")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Reserves a slot or fails fast with {@link ServiceOverloadedException}.
+     * The returned permit must be completed exactly once.
+     */
+    public Permit acquire() {
+        Permit permit = tryAcquire();
+        if (permit == null) {
+            rejectedCounter.increment();
+            throw overloaded();
+        }
+        return permit;
+    }
+
+    /**
+     * Waits up to {@code maxWait} for a slot, for background work that should queue behind the
+     * limit rather than be shed. Fails with {@link ServiceOverloadedException} once the wait runs out.
+     */
+    public Permit acquire(Duration maxWait) {
+        Permit permit = tryAcquire();
+        if (permit != null) {
+            return permit;
+        }
+        long remaining = maxWait.toNanos();
+        capacityLock.lock();
+        // Counted before the re-check below, so a release that misses the count frees a slot it will see
+        waiting.incrementAndGet();
+        try {
+            while ((permit = tryAcquire()) == null) {
+                if (remaining <= 0) {
+                    rejectedCounter.increment();
+                    throw overloaded();
+                }
+                remaining = capacityFreed.awaitNanos(remaining);
+            }
+            return permit;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            rejectedCounter.increment();
+            throw overloaded();
+        } finally {
+            waiting.decrementAndGet();
+            capacityLock.unlock();
+        }
+    }
+
+    private Permit tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(current + 1);
+            }
+        }
+    }
+
+    private ServiceOverloadedException overloaded() {
+        return new ServiceOverloadedException("AI service is at capacity, retry shortly", retryAfterSeconds);
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        if (waiting.get() > 0) {
+            capacityLock.lock();
+            try {
+                capacityFreed.signalAll();
+            } finally {
+                capacityLock.unlock();
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized double rttSeconds(boolean longWindow) {
+        return (longWindow ? longRttNanos : shortRttNanos) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        if (shortRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+        } else {
+            shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+            longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+        }
+
+        // Latency recovered after an overload: let the baseline catch up quickly
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        // Not enough load to say anything about the limit
+        if (inFlightAtStart < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRttNanos / shortRttNanos));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        update(estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING);
+    }
+
+    private synchronized void onDropped() {
+        update(estimatedLimit * BACKOFF_RATIO);
+    }
+
+    private void update(double newLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public final class Permit {
+
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /** The call completed normally; its latency feeds the limit. */
+        public void success() {
+            release();
+            onSample(System.nanoTime() - startNanos, inFlightAtStart);
+        }
+
+        /** The call timed out or ai-service reported it was failing; back off. */
+        public void dropped() {
+            release();
+            onDropped();
+        }
+
+        /** The call failed for reasons unrelated to load; release without a sample. */
+        public void ignore() {
+            release();
+        }
+    }
+}
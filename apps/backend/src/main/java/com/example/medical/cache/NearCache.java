@@ -0,0 +1,97 @@
+package com.example.medical.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Small in-process cache bounded by entry count and time to live. Entries are evicted oldest
+ * first once either bound is exceeded; hits, misses and size are exported as
+ * {@code medical.cache.*} with a {@code cache} tag.
+ */
+public class NearCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Queue<Insertion<K, V>> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public NearCache(String name, int maxSize, long ttlMs, MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+
+        Gauge.builder("medical.cache.size", entries, Map::size)
+            .tag("cache", name)
+            .register(meterRegistry);
+        FunctionCounter.builder("medical.cache.requests", hits, LongAdder::sum)
+            .tag("cache", name).tag("result", "hit")
+            .register(meterRegistry);
+        FunctionCounter.builder("medical.cache.requests", misses, LongAdder::sum)
+            .tag("cache", name).tag("result", "miss")
+            .register(meterRegistry);
+    }
+
+    /** Returns the cached value, or loads it; a {@code null} load result is not cached. */
+    public V get(K key, Function<K, V> loader) {
+        long now = System.nanoTime();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && now - entry.loadedAt() <= ttlNanos) {
+            hits.increment();
+            return entry.value();
+        }
+        misses.increment();
+        V value = loader.apply(key);
+        if (value != null) {
+            Entry<V> loaded = new Entry<>(value, now);
+            entries.put(key, loaded);
+            insertionOrder.offer(new Insertion<>(key, loaded));
+            evict(now);
+        }
+        return value;
+    }
+
+    /** Returns the cached value, or {@code null} without loading anything. */
+    public V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && System.nanoTime() - entry.loadedAt() <= ttlNanos) {
+            hits.increment();
+            return entry.value();
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateIf(BiPredicate<K, V> predicate) {
+        entries.entrySet().removeIf(e -> predicate.test(e.getKey(), e.getValue().value()));
+    }
+
+    private void evict(long now) {
+        Insertion<K, V> oldest;
+        while ((oldest = insertionOrder.peek()) != null
+            && (entries.size() > maxSize || now - oldest.entry().loadedAt() > ttlNanos)) {
+            oldest = insertionOrder.poll();
+            if (oldest != null) {
+                // Leaves the key alone if it was reloaded since this insertion
+                entries.remove(oldest.key(), oldest.entry());
+            }
+        }
+    }
+
+    private record Entry<V>(V value, long loadedAt) { }
+
+    private record Insertion<K, V>(K key, Entry<V> entry) { }
+}
@@ -0,0 +1,107 @@
+package com.example.medical.cache;
+
+import com.example.medical.doctor.Doctor;
+import com.example.medical.doctor.DoctorRepository;
+import com.example.medical.exception.NotFoundException;
+import com.example.medical.messaging.EntityChange;
+import com.example.medical.messaging.EntityChangeBatch;
+import com.example.medical.patient.Patient;
+import com.example.medical.patient.PatientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Near-cache for the doctor and patient lookups every create path does. Only the fact that
+ * an id exists, and which doctor id an email belongs to, is cached; callers get a lazy
+ * reference from {@code getReferenceById}, so a hit costs no SELECT at all.
+ * <p>
+ * An id stays valid until its row is deleted, so patient and doctor ids are only dropped on
+ * delete. A doctor's email can change, so {@code DoctorService} drops the doctor's entries once
+ * an update commits, and every node applies the {@code entity-changes} feed so changes made on
+ * other nodes are dropped too. The TTL bounds staleness if a change event is missed.
+ */
+@Component
+public class ReferenceCache {
+
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final NearCache<UUID, Boolean> patientIds;
+    private final NearCache<UUID, Boolean> doctorIds;
+    private final NearCache<String, UUID> doctorIdsByEmail;
+
+    public ReferenceCache(PatientRepository patientRepository,
+                          DoctorRepository doctorRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.cache.references.max-size:50000}") int maxSize,
+                          @Value("${app.cache.references.ttl-ms:300000}") long ttlMs) {
+        this.patientRepository = patientRepository;
+        this.doctorRepository = doctorRepository;
+        this.patientIds = new NearCache<>("patient-by-id", maxSize, ttlMs, meterRegistry);
+        this.doctorIds = new NearCache<>("doctor-by-id", maxSize, ttlMs, meterRegistry);
+        this.doctorIdsByEmail = new NearCache<>("doctor-by-email", maxSize, ttlMs, meterRegistry);
+    }
+
+    public Patient patient(UUID id) {
+        if (patientIds.get(id, key -> patientRepository.existsById(key) ? Boolean.TRUE : null) == null) {
+            throw new NotFoundException("Patient not found");
+        }
+        return patientRepository.getReferenceById(id);
+    }
+
+    public Doctor doctor(UUID id) {
+        if (doctorIds.get(id, key -> doctorRepository.existsById(key) ? Boolean.TRUE : null) == null) {
+            throw new NotFoundException("Doctor not found");
+        }
+        return doctorRepository.getReferenceById(id);
+    }
+
+    /** @return the id of the doctor with this email, or {@code null} if there is none */
+    public UUID doctorIdByEmail(String email) {
+        return doctorIdsByEmail.get(email, key -> doctorRepository.findByEmail(key).map(Doctor::getId).orElse(null));
+    }
+
+    public void invalidatePatient(UUID id) {
+        patientIds.invalidate(id);
+    }
+
+    public void invalidateDoctor(UUID id) {
+        doctorIds.invalidate(id);
+        doctorIdsByEmail.invalidateIf((email, doctorId) -> doctorId.equals(id));
+    }
+
+    /** Drops the doctor's entries once the current transaction commits. */
+    public void invalidateDoctorAfterCommit(UUID id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateDoctor(id);
+                }
+            });
+        } else {
+            invalidateDoctor(id);
+        }
+    }
+
+    void apply(EntityChangeBatch batch) {
+        for (EntityChange change : batch.getChanges()) {
+            switch (change.entityType()) {
+                case "patient" -> {
+                    if (change.operation() == EntityChange.Operation.DELETE) {
+                        invalidatePatient(change.entityId());
+                    }
+                }
+                case "doctor" -> {
+                    if (change.operation() == EntityChange.Operation.DELETE || change.changedFields().contains("email")) {
+                        invalidateDoctor(change.entityId());
+                    }
+                }
+                default -> { }
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.medical.cache;
+
+import com.example.medical.messaging.EntityChangeBatch;
+import com.example.medical.messaging.EventBus;
+import com.example.medical.messaging.EventSubscriber;
+import org.springframework.stereotype.Component;
+
+/** Drops cached references for patients and doctors changed anywhere in the cluster. */
+@Component
+public class ReferenceCacheInvalidator implements EventSubscriber<EntityChangeBatch> {
+
+    private final ReferenceCache referenceCache;
+
+    public ReferenceCacheInvalidator(ReferenceCache referenceCache) {
+        this.referenceCache = referenceCache;
+    }
+
+    @Override
+    public String topic() {
+        return EventBus.TOPIC_ENTITY_CHANGES;
+    }
+
+    @Override
+    public Class<EntityChangeBatch> eventType() {
+        return EntityChangeBatch.class;
+    }
+
+    @Override
+    public void handle(EntityChangeBatch event) {
+        referenceCache.apply(event);
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.medical.cdc;
+
+import com.example.medical.common.BaseEntity;
+import com.example.medical.messaging.EntityChange;
+import com.example.medical.messaging.EntityChangeBatch;
+import com.example.medical.messaging.EventBus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Gathers the entity changes of the current transaction and publishes them on the
+ * {@value EventBus#TOPIC_ENTITY_CHANGES} topic after commit, in batches of at most
+ * {@code app.cdc.max-batch-size}. Rolled-back transactions publish nothing. The committing
+ * thread only queues the changes; a single publisher thread hands them to the event bus in
+ * commit order, so a slow or absent broker never holds up the request that wrote them. When
+ * {@code app.cdc.publish-queue-capacity} transactions are already waiting, further changes are
+ * dropped and counted as failed.
+ * <p>
+ * Publishing happens after commit rather than through the outbox, so a crash in between loses
+ * that batch, and the feed itself is best-effort. An entity's version is its {@code updated_at}
+ * in microseconds, not a sequence number, so a lost batch cannot be detected from the versions
+ * that follow. Consumers treat the feed as a hint and must also reconcile with the database
+ * periodically, as the dashboard aggregates and the emergency grant index do, or expire what
+ * they cache.
+ * <p>
+ * Changes to an entity's {@value #STATUS_FIELD} field are also handed to local
+ * {@link StatusTransitionListener}s after commit.
+ */
+@Component
+public class ChangeCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeCollector.class);
+
+    static final String STATUS_FIELD = "status";
+
+    // The event bus depends on repositories, so it is looked up lazily to keep the
+    // entity manager factory free of a cycle through this listener
+    private final ObjectProvider<EventBus> eventBus;
+    private final ObjectProvider<StatusTransitionListener> transitionListeners;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final ThreadPoolExecutor publisher;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+
+    public ChangeCollector(ObjectProvider<EventBus> eventBus,
+                           ObjectProvider<StatusTransitionListener> transitionListeners,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.cdc.enabled:true}") boolean enabled,
+                           @Value("${app.cdc.max-batch-size:500}") int maxBatchSize,
+                           @Value("${app.cdc.publish-queue-capacity:10000}") int publishQueueCapacity) {
+        this.eventBus = eventBus;
+        this.transitionListeners = transitionListeners;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.publisher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(publishQueueCapacity),
+            Thread.ofPlatform().name("cdc-publisher").daemon().factory());
+        Gauge.builder("medical.cdc.publish.queued", publisher, executor -> executor.getQueue().size())
+            .description("Committed transactions whose changes are waiting to be published")
+            .register(meterRegistry);
+        this.publishedCounter = Counter.builder("medical.cdc.changes.published")
+            .description("Entity changes published on the change feed")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("medical.cdc.batches.failed")
+            .description("Change batches the event bus did not accept")
+            .register(meterRegistry);
+    }
+
+    void snapshot(BaseEntity entity) {
+        TransactionChanges changes = current(false);
+        if (changes != null) {
+            changes.snapshots.put(entity, EntitySnapshots.capture(entity));
+        }
+    }
+
+    List<String> changedSinceSnapshot(BaseEntity entity) {
+        TransactionChanges changes = current(false);
+        Object[] before = changes != null ? changes.snapshots.get(entity) : null;
+        return before != null ? EntitySnapshots.diff(entity, before) : EntitySnapshots.fieldNames(entity.getClass());
+    }
+
+    void record(BaseEntity entity, EntityChange.Operation operation, long version, List<String> changedFields) {
+        TransactionChanges changes = current(true);
+        if (changes == null) {
+            return;
+        }
+        String entityType = entity.getClass().getAnnotation(ChangeTracked.class).value();
+        changes.changes.add(new EntityChange(entityType, entity.getId(), operation, version, changedFields));
+        StatusTransition transition = statusTransition(entityType, entity, operation, changes.snapshots.get(entity));
+        if (transition != null) {
+            changes.transitions.add(transition);
+        }
+    }
+
+    private static StatusTransition statusTransition(String entityType, BaseEntity entity,
+                                                     EntityChange.Operation operation, Object[] before) {
+        Object from;
+        Object to;
+        switch (operation) {
+            case CREATE -> {
+                from = null;
+                to = EntitySnapshots.valueOf(entity, STATUS_FIELD);
+            }
+            case UPDATE -> {
+                // Without the loaded state the previous status is unknown
+                if (before == null) {
+                    return null;
+                }
+                from = EntitySnapshots.valueIn(entity.getClass(), before, STATUS_FIELD);
+                to = EntitySnapshots.valueOf(entity, STATUS_FIELD);
+            }
+            default -> {
+                from = before != null
+                    ? EntitySnapshots.valueIn(entity.getClass(), before, STATUS_FIELD)
+                    : EntitySnapshots.valueOf(entity, STATUS_FIELD);
+                to = null;
+            }
+        }
+        if (Objects.equals(from, to) || !(from == null || from instanceof Enum) || !(to == null || to instanceof Enum)) {
+            return null;
+        }
+        return new StatusTransition(entityType, (Enum<?>) from, (Enum<?>) to);
+    }
+
+    private void notifyTransitions(List<StatusTransition> transitions) {
+        transitionListeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onStatusTransitions(transitions);
+            } catch (RuntimeException ex) {
+                logger.warn("Status transition listener {} failed", listener.getClass().getSimpleName(), ex);
+            }
+        });
+    }
+
+    private TransactionChanges current(boolean writing) {
+        if (!enabled || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        // Read-only transactions never flush, so snapshots taken there would only cost memory
+        if (!writing && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return null;
+        }
+        TransactionChanges changes = (TransactionChanges) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            changes = new TransactionChanges();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        return changes;
+    }
+
+    /** Queues the changes for the publisher thread; never blocks the committing thread. */
+    private void enqueue(List<EntityChange> changes) {
+        try {
+            publisher.execute(() -> publish(changes));
+        } catch (RejectedExecutionException ex) {
+            failedCounter.increment();
+            logger.warn("Change feed publish queue is full; dropping {} changes", changes.size());
+        }
+    }
+
+    private void publish(List<EntityChange> changes) {
+        for (int from = 0; from < changes.size(); from += maxBatchSize) {
+            List<EntityChange> slice = changes.subList(from, Math.min(changes.size(), from + maxBatchSize));
+            EntityChangeBatch batch = new EntityChangeBatch(slice);
+            String key = slice.get(0).entityId().toString();
+            try {
+                eventBus.getObject().publish(EventBus.TOPIC_ENTITY_CHANGES, key, batch)
+                    .whenComplete((ignored, failure) -> onPublished(batch, failure));
+            } catch (RuntimeException ex) {
+                // The Kafka bus throws when it cannot take the batch within its backpressure timeout
+                onPublished(batch, ex);
+            }
+        }
+    }
+
+    private void onPublished(EntityChangeBatch batch, Throwable failure) {
+        if (failure != null) {
+            failedCounter.increment();
+            logger.error("Change batch {} with {} changes not published", batch.getEventId(),
+                batch.getChanges().size(), failure);
+        } else {
+            publishedCounter.increment(batch.getChanges().size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        publisher.shutdown();
+        // Gives queued changes a moment to go out; the feed is best-effort beyond that
+        publisher.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private final class TransactionChanges implements TransactionSynchronization {
+
+        private final Map<Object, Object[]> snapshots = new IdentityHashMap<>();
+        private final List<EntityChange> changes = new ArrayList<>();
+        private final List<StatusTransition> transitions = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            if (!transitions.isEmpty()) {
+                notifyTransitions(transitions);
+            }
+            if (!changes.isEmpty()) {
+                enqueue(changes);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeCollector.this);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.medical.cdc;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/** Marks an entity whose creates, updates and deletes are published on the change feed. */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ChangeTracked {
+
+    /** Entity type name used in change events, e.g. {@code patient}. */
+    String value();
+}
@@ -0,0 +1,70 @@
+package com.example.medical.cdc;
+
+import com.example.medical.common.BaseEntity;
+import com.example.medical.messaging.EntityChange;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener registered on {@link BaseEntity}. For {@link ChangeTracked} entities it keeps a
+ * snapshot of the loaded state and records each flushed insert, update and delete with the
+ * fields that changed; {@link ChangeCollector} publishes them once the transaction commits.
+ */
+@Component
+public class EntityChangeListener {
+
+    private final ChangeCollector collector;
+
+    public EntityChangeListener(ChangeCollector collector) {
+        this.collector = collector;
+    }
+
+    @PostLoad
+    public void onLoad(BaseEntity entity) {
+        if (isTracked(entity)) {
+            collector.snapshot(entity);
+        }
+    }
+
+    @PostPersist
+    public void onPersist(BaseEntity entity) {
+        if (isTracked(entity)) {
+            collector.record(entity, EntityChange.Operation.CREATE, version(entity.getUpdatedAt()),
+                EntitySnapshots.fieldNames(entity.getClass()));
+            collector.snapshot(entity);
+        }
+    }
+
+    @PostUpdate
+    public void onUpdate(BaseEntity entity) {
+        if (isTracked(entity)) {
+            List<String> changed = collector.changedSinceSnapshot(entity);
+            if (!changed.isEmpty()) {
+                collector.record(entity, EntityChange.Operation.UPDATE, version(entity.getUpdatedAt()), changed);
+            }
+            collector.snapshot(entity);
+        }
+    }
+
+    @PostRemove
+    public void onRemove(BaseEntity entity) {
+        if (isTracked(entity)) {
+            collector.record(entity, EntityChange.Operation.DELETE, version(OffsetDateTime.now()), List.of());
+        }
+    }
+
+    private static boolean isTracked(BaseEntity entity) {
+        return entity.getClass().isAnnotationPresent(ChangeTracked.class);
+    }
+
+    private static long version(OffsetDateTime timestamp) {
+        return timestamp != null ? ChronoUnit.MICROS.between(Instant.EPOCH, timestamp.toInstant()) : 0;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.medical.cdc;
+
+import com.example.medical.common.BaseEntity;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.Transient;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Reads the persistent fields of an entity for change detection; to-one references compare by id. */
+final class EntitySnapshots {
+
+    private static final Map<Class<?>, Field[]> FIELDS = new ConcurrentHashMap<>();
+
+    private EntitySnapshots() {
+    }
+
+    static Object[] capture(BaseEntity entity) {
+        Field[] fields = fieldsOf(entity.getClass());
+        Object[] state = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            state[i] = read(fields[i], entity);
+        }
+        return state;
+    }
+
+    static List<String> diff(BaseEntity entity, Object[] before) {
+        Field[] fields = fieldsOf(entity.getClass());
+        List<String> changed = new ArrayList<>();
+        for (int i = 0; i < fields.length; i++) {
+            if (!Objects.equals(before[i], read(fields[i], entity))) {
+                changed.add(fields[i].getName());
+            }
+        }
+        return changed;
+    }
+
+    static List<String> fieldNames(Class<?> type) {
+        Field[] fields = fieldsOf(type);
+        List<String> names = new ArrayList<>(fields.length);
+        for (Field field : fields) {
+            names.add(field.getName());
+        }
+        return names;
+    }
+
+    /** Value of the named field in a captured state, or null if the type has no such field. */
+    static Object valueIn(Class<?> type, Object[] state, String name) {
+        Field[] fields = fieldsOf(type);
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].getName().equals(name)) {
+                return state[i];
+            }
+        }
+        return null;
+    }
+
+    /** Current value of the named field, or null if the type has no such field. */
+    static Object valueOf(BaseEntity entity, String name) {
+        for (Field field : fieldsOf(entity.getClass())) {
+            if (field.getName().equals(name)) {
+                return read(field, entity);
+            }
+        }
+        return null;
+    }
+
+    private static Object read(Field field, BaseEntity entity) {
+        try {
+            Object value = field.get(entity);
+            // Lazy proxies answer getId() without loading the referenced row
+            return value instanceof BaseEntity reference ? reference.getId() : value;
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Cannot read " + field, ex);
+        }
+    }
+
+    private static Field[] fieldsOf(Class<?> type) {
+        return FIELDS.computeIfAbsent(type, EntitySnapshots::persistentFields);
+    }
+
+    /** Fields declared below {@link BaseEntity}; its id and timestamps are not business changes. */
+    private static Field[] persistentFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != BaseEntity.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)
+                    || field.isAnnotationPresent(Transient.class)
+                    || field.isAnnotationPresent(OneToMany.class)
+                    || field.isAnnotationPresent(ManyToMany.class)) {
+                    continue;
+                }
+                field.setAccessible(true);
+                fields.add(field);
+            }
+        }
+        return fields.toArray(Field[]::new);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.medical.cdc;
+
+/**
+ * A committed change to the {@code status} field of a {@link ChangeTracked} entity. {@code from}
+ * is null for inserts and {@code to} is null for deletes.
+ */
+public record StatusTransition(String entityType, Enum<?> from, Enum<?> to) {
+}
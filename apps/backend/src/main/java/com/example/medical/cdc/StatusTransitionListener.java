@@ -0,0 +1,12 @@
+package com.example.medical.cdc;
+
+import java.util.List;
+
+/**
+ * Receives the status transitions of each transaction committed on this node, on the
+ * committing thread. Changes made on other nodes are not delivered here.
+ */
+public interface StatusTransitionListener {
+
+    void onStatusTransitions(List<StatusTransition> transitions);
+}
@@ -1,8 +1,8 @@
 package com.example.medical.common;
 
+import com.example.medical.cdc.EntityChangeListener;
 import jakarta.persistence.Column;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
 import jakarta.persistence.PrePersist;
@@ -11,10 +11,11 @@ import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @MappedSuperclass
+@EntityListeners(EntityChangeListener.class)
 public abstract class BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -0,0 +1,89 @@
+package com.example.medical.common;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Inserts large lists of new entities in chunks, each chunk in its own transaction and sent as
+ * JDBC batches ({@code hibernate.jdbc.batch_size}, ordered inserts). The persistence context
+ * is cleared after every chunk so memory stays flat however many rows are written.
+ * <p>
+ * A chunk that fails is retried one item per transaction, so a single bad row only fails
+ * itself and the rest of its chunk is still written.
+ */
+@Component
+public class BatchInserter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchInserter.class);
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public BatchInserter(EntityManager entityManager,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.batch.chunk-size:500}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param prepare runs inside the chunk's transaction just before each entity is persisted,
+     *                e.g. to attach references obtained from the same persistence context
+     */
+    public <T extends BaseEntity> BatchResponse insertAll(List<T> entities, Consumer<T> prepare) {
+        List<BatchResponse.ItemResult> results = new ArrayList<>(entities.size());
+        int failed = 0;
+        for (int from = 0; from < entities.size(); from += chunkSize) {
+            List<T> chunk = entities.subList(from, Math.min(entities.size(), from + chunkSize));
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(chunk, prepare));
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(BatchResponse.ItemResult.created(from + i, chunk.get(i).getId()));
+                }
+            } catch (RuntimeException chunkFailure) {
+                logger.warn("Batch chunk at {} failed, inserting its {} items one by one: {}",
+                    from, chunk.size(), chunkFailure.toString());
+                for (int i = 0; i < chunk.size(); i++) {
+                    T entity = chunk.get(i);
+                    // The failed attempt already assigned an id; persist needs a transient entity
+                    entity.setId(null);
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> persist(List.of(entity), prepare));
+                        results.add(BatchResponse.ItemResult.created(from + i, entity.getId()));
+                    } catch (RuntimeException itemFailure) {
+                        failed++;
+                        results.add(BatchResponse.ItemResult.failed(from + i, rootMessage(itemFailure)));
+                    }
+                }
+            }
+        }
+        return new BatchResponse(entities.size() - failed, failed, results);
+    }
+
+    private <T extends BaseEntity> void persist(List<T> chunk, Consumer<T> prepare) {
+        for (T entity : chunk) {
+            prepare.accept(entity);
+            entityManager.persist(entity);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static String rootMessage(Throwable failure) {
+        Throwable root = failure;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+}
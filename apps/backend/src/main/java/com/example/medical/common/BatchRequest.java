@@ -0,0 +1,24 @@
+package com.example.medical.common;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/** Body of the bulk create endpoints; every item is validated before anything is written. */
+public class BatchRequest<T> {
+
+    public static final int MAX_ITEMS = 100_000;
+
+    @NotEmpty
+    @Size(max = MAX_ITEMS)
+    private List<@Valid T> items;
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.medical.common;
+
+import java.util.List;
+import java.util.UUID;
+
+/** Outcome of a bulk create, with one result per submitted item in submission order. */
+public record BatchResponse(int created, int failed, List<ItemResult> items) {
+
+    public record ItemResult(int index, UUID id, String error) {
+
+        public static ItemResult created(int index, UUID id) {
+            return new ItemResult(index, id, null);
+        }
+
+        public static ItemResult failed(int index, String error) {
+            return new ItemResult(index, null, error);
+        }
+    }
+}
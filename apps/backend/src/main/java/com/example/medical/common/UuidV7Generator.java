@@ -0,0 +1,54 @@
+package com.example.medical.common;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+/**
+ * Generates RFC 9562 version 7 UUIDs: a 48-bit Unix millisecond timestamp, a 12-bit counter in
+ * {@code rand_a} and 62 random bits. Ids from one JVM are strictly increasing, even within a
+ * millisecond, so inserts append to the right edge of the primary key index instead of
+ * landing on random pages.
+ * <p>
+ * The timestamp and counter share one {@link AtomicLong} advanced by CAS, so concurrent inserts
+ * never lock. When more than 4096 ids are taken in one millisecond, or the clock steps back,
+ * the counter carries into the timestamp and keeps counting until the clock catches up.
+ * <p>
+ * Existing random v4 ids stay valid: both versions share the {@code uuid} column type and ids
+ * are never compared by age, so old rows need no rewrite. New rows cluster at the end of the
+ * index from the first insert after deploy; {@code REINDEX INDEX CONCURRENTLY} on the primary
+ * keys afterwards compacts the pages the v4 inserts had split.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    public static UUID next() {
+        long current;
+        long next;
+        do {
+            current = LAST.get();
+            next = Math.max(System.currentTimeMillis() << 12, current + 1);
+        } while (!LAST.compareAndSet(current, next));
+
+        long timestampAndCounter = next;
+        long mostSignificant = ((timestampAndCounter >>> 12) << 16) | 0x7000L | (timestampAndCounter & 0xFFFL);
+        long leastSignificant = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EnumSet.of(EventType.INSERT);
+    }
+}
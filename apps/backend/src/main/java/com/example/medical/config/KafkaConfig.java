@@ -1,57 +1,142 @@
 package com.example.medical.config;
 
+import com.example.medical.messaging.DocumentRetryRouter;
 import com.example.medical.messaging.DocumentUploadedEvent;
+import com.example.medical.messaging.DomainEvent;
+import com.example.medical.messaging.DomainEventDeserializer;
+import com.example.medical.messaging.DomainEventSerializer;
+import com.example.medical.messaging.EventBus;
+import com.example.medical.messaging.KeyOrderedDispatcher;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@ConditionalOnProperty(name = "app.events.bus", havingValue = "kafka", matchIfMissing = true)
 @EnableKafka
 public class KafkaConfig {
 
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    @Value("${app.kafka.consumer.concurrency:3}")
+    private int consumerConcurrency;
+
+    @Value("${app.kafka.consumer.max-poll-records:50}")
+    private int maxPollRecords;
+
+    @Value("${app.kafka.consumer.key-ordered.commit-interval-ms:1000}")
+    private long commitIntervalMs;
+
+    @Value("${app.kafka.topics.partitions:6}")
+    private int topicPartitions;
+
+    @Value("${app.kafka.producer.linger-ms:10}")
+    private int producerLingerMs;
+
+    @Value("${app.kafka.producer.batch-size:65536}")
+    private int producerBatchSize;
+
+    @Value("${app.kafka.producer.compression-type:lz4}")
+    private String producerCompressionType;
+
+    @Value("${app.kafka.producer.idempotence:true}")
+    private boolean producerIdempotence;
+
+    @Value("${app.kafka.producer.max-block-ms:5000}")
+    private long producerMaxBlockMs;
+
+    @Value("${app.kafka.producer.request-timeout-ms:10000}")
+    private int producerRequestTimeoutMs;
+
+    @Value("${app.kafka.producer.delivery-timeout-ms:30000}")
+    private int producerDeliveryTimeoutMs;
+
+    private final MeterRegistry meterRegistry;
+
+    public KafkaConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @Bean
-    public ProducerFactory<String, DocumentUploadedEvent> producerFactory() {
-        Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+    public ProducerFactory<String, DomainEvent> producerFactory() {
+        Map<String, Object> configProps = producerProps();
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, DomainEventSerializer.class);
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
     @Bean
-    public KafkaTemplate<String, DocumentUploadedEvent> kafkaTemplate() {
+    public KafkaTemplate<String, DomainEvent> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
 
+    /**
+     * Raw-bytes template for retry and dead-letter topics, so records that could not even be
+     * deserialized are forwarded unchanged.
+     */
+    @Bean
+    public KafkaTemplate<String, byte[]> retryKafkaTemplate() {
+        Map<String, Object> configProps = producerProps();
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(configProps));
+    }
+
+    private Map<String, Object> producerProps() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, producerLingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, producerBatchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, producerCompressionType);
+        // Broker-side dedupe of retried batches; keeps per-partition order with up to 5 in flight
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, producerIdempotence);
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        // send() blocks on missing metadata or a full buffer for at most this long, then fails
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, producerMaxBlockMs);
+        // Bounds how long an accepted record can hold its in-flight slot; must cover linger plus one request
+        configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, producerRequestTimeoutMs);
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, producerDeliveryTimeoutMs);
+        return configProps;
+    }
+
     @Bean
     public ConsumerFactory<String, DocumentUploadedEvent> consumerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, "medical-group");
         configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        configProps.put(JsonDeserializer.VALUE_DEFAULT_TYPE, DocumentUploadedEvent.class.getName());
-        configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        return new DefaultKafkaConsumerFactory<>(configProps);
+        // Undecodable records reach the listener with a null value and go to the dead-letter topic
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        configProps.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, DomainEventDeserializer.class);
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        DefaultKafkaConsumerFactory<String, DocumentUploadedEvent> factory = new DefaultKafkaConsumerFactory<>(configProps);
+        // Exposes client metrics such as kafka.consumer.fetch.manager.records.lag.max
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
@@ -59,6 +144,96 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, DocumentUploadedEvent> factory =
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(consumerConcurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
         return factory;
     }
+
+    /**
+     * Same consumers as {@link #kafkaListenerContainerFactory()}, but offsets are committed by
+     * the {@link KeyOrderedDispatcher} and idle events let it commit while no records arrive.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, DocumentUploadedEvent> keyOrderedListenerContainerFactory(
+            KeyOrderedDispatcher keyOrderedDispatcher) {
+        ConcurrentKafkaListenerContainerFactory<String, DocumentUploadedEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(consumerConcurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setConsumerRebalanceListener(keyOrderedDispatcher);
+        factory.getContainerProperties().setIdleEventInterval(commitIntervalMs);
+        return factory;
+    }
+
+    /**
+     * For topics every node reads in full under a throwaway group: new nodes start at the
+     * latest offset and progress is auto-committed, since nothing is replayed on restart.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, DomainEvent> broadcastListenerContainerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        configProps.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, DomainEventDeserializer.class);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+        ConcurrentKafkaListenerContainerFactory<String, DomainEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(configProps));
+        factory.setBatchListener(true);
+        return factory;
+    }
+
+    /** One consumer per retry tier; records wait on the topic until their due time. */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, DocumentUploadedEvent> retryListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, DocumentUploadedEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(1);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    @Bean
+    public ConsumerFactory<String, byte[]> deadLetterConsumerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+        return new DefaultKafkaConsumerFactory<>(configProps);
+    }
+
+    @Bean
+    public NewTopic documentRetryTopic0() {
+        return TopicBuilder.name(DocumentRetryRouter.RETRY_TOPIC_PREFIX + 0).partitions(topicPartitions).build();
+    }
+
+    @Bean
+    public NewTopic documentRetryTopic1() {
+        return TopicBuilder.name(DocumentRetryRouter.RETRY_TOPIC_PREFIX + 1).partitions(topicPartitions).build();
+    }
+
+    @Bean
+    public NewTopic documentRetryTopic2() {
+        return TopicBuilder.name(DocumentRetryRouter.RETRY_TOPIC_PREFIX + 2).partitions(topicPartitions).build();
+    }
+
+    @Bean
+    public NewTopic entityChangesTopic() {
+        return TopicBuilder.name(EventBus.TOPIC_ENTITY_CHANGES).partitions(topicPartitions).build();
+    }
+
+    @Bean
+    public NewTopic documentDeadLetterTopic() {
+        return TopicBuilder.name(DocumentRetryRouter.DEAD_LETTER_TOPIC).partitions(topicPartitions).build();
+    }
 }
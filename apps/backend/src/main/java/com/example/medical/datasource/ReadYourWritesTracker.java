@@ -0,0 +1,74 @@
+package com.example.medical.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps a user's reads on the primary for a short window after they commit a write, so a
+ * replica that has not replayed the write yet cannot hide it from them. Tracked per node;
+ * behind a load balancer without session affinity the replica lag guard is the backstop.
+ */
+public class ReadYourWritesTracker {
+
+    private final Map<String, Long> lastWriteAt = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    public ReadYourWritesTracker(long windowMs) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+    }
+
+    /** Called when a read-write transaction takes a connection; stickiness starts at commit. */
+    void onWriteTransaction() {
+        String user = currentUser();
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()
+            || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, user);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteAt.put(user, System.nanoTime());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReadYourWritesTracker.this);
+            }
+        });
+    }
+
+    boolean isSticky() {
+        String user = currentUser();
+        if (user == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteAt.get(user);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - writtenAt > windowNanos) {
+            lastWriteAt.remove(user, writtenAt);
+            return false;
+        }
+        return true;
+    }
+
+    /** Drops users whose window has passed and who have not read since. */
+    @Scheduled(fixedDelayString = "${app.datasource.sticky-prune-interval-ms:60000}")
+    public void prune() {
+        long now = System.nanoTime();
+        lastWriteAt.values().removeIf(writtenAt -> now - writtenAt > windowNanos);
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.medical.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica and everything else to
+ * the primary. Must sit behind a {@code LazyConnectionDataSourceProxy} so the transaction's
+ * read-only flag is known by the time a connection is actually taken.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+
+    private final ReplicaSet replicaSet;
+    private final ReadYourWritesTracker readYourWrites;
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+
+    public ReplicaRoutingDataSource(ReplicaSet replicaSet, ReadYourWritesTracker readYourWrites,
+                                    MeterRegistry meterRegistry) {
+        this.replicaSet = replicaSet;
+        this.readYourWrites = readYourWrites;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, replicaSet.primary());
+        for (ReplicaSet.Replica replica : replicaSet.replicas()) {
+            targets.put(replica.key(), replica.pool());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(replicaSet.primary());
+        this.primaryReads = Counter.builder("medical.datasource.reads")
+            .description("Read-only transactions by the database they were routed to")
+            .tag("target", PRIMARY)
+            .register(meterRegistry);
+        this.replicaReads = Counter.builder("medical.datasource.reads")
+            .description("Read-only transactions by the database they were routed to")
+            .tag("target", "replica")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWrites.onWriteTransaction();
+            return PRIMARY;
+        }
+        ReplicaSet.Replica replica = readYourWrites.isSticky() ? null : replicaSet.nextHealthy();
+        if (replica == null) {
+            primaryReads.increment();
+            return PRIMARY;
+        }
+        replicaReads.increment();
+        return replica.key();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.medical.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * The primary pool and the read replica pools, with each replica's replication lag. A replica
+ * is only handed out while its lag is within the configured bound; otherwise reads fall back
+ * to the primary until it catches up.
+ */
+public class ReplicaSet implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaSet.class);
+
+    // Zero when the replica has replayed everything the primary has written, otherwise the age
+    // of the last replayed transaction; a quiet primary therefore never looks like lag
+    private static final String LAG_QUERY = "SELECT CASE WHEN pg_wal_lsn_diff(?::pg_lsn, pg_last_wal_replay_lsn()) <= 0 "
+        + "THEN 0 ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaSet(HikariDataSource primary, List<HikariDataSource> replicaPools, long maxLagMs,
+                      MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.maxLagSeconds = maxLagMs / 1000.0;
+        for (Replica replica : replicas) {
+            Gauge.builder("medical.datasource.replica.lag", replica, r -> r.lagSeconds)
+                .description("Replication lag of a read replica; NaN while it cannot be measured")
+                .baseUnit("seconds")
+                .tag("replica", replica.key())
+                .register(meterRegistry);
+        }
+    }
+
+    HikariDataSource primary() {
+        return primary;
+    }
+
+    List<Replica> replicas() {
+        return replicas;
+    }
+
+    /** Round-robin over replicas within the lag bound, or {@code null} if there are none. */
+    Replica nextHealthy() {
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        String primaryLsn;
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT pg_current_wal_lsn()::text")) {
+            result.next();
+            primaryLsn = result.getString(1);
+        } catch (SQLException ex) {
+            logger.warn("Cannot read primary WAL position: {}", ex.toString());
+            return;
+        }
+        for (Replica replica : replicas) {
+            replica.check(primaryLsn);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.pool.close());
+        primary.close();
+    }
+
+    final class Replica {
+
+        private final HikariDataSource pool;
+        private volatile boolean healthy;
+        private volatile double lagSeconds = Double.NaN;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        String key() {
+            return pool.getPoolName();
+        }
+
+        HikariDataSource pool() {
+            return pool;
+        }
+
+        private void check(String primaryLsn) {
+            try (Connection connection = pool.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(LAG_QUERY)) {
+                statement.setString(1, primaryLsn);
+                try (ResultSet result = statement.executeQuery()) {
+                    result.next();
+                    double lag = result.getDouble(1);
+                    lagSeconds = result.wasNull() ? Double.NaN : lag;
+                }
+            } catch (SQLException ex) {
+                lagSeconds = Double.NaN;
+                logger.debug("Cannot measure lag of replica {}: {}", key(), ex.toString());
+            }
+            boolean wasHealthy = healthy;
+            healthy = !Double.isNaN(lagSeconds) && lagSeconds <= maxLagSeconds;
+            if (wasHealthy != healthy) {
+                logger.warn("Replica {} {} (lag {} s)", key(), healthy ? "back in rotation" : "taken out of rotation",
+                    lagSeconds);
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.medical.doctor;
 
+import com.example.medical.cdc.ChangeTracked;
 import com.example.medical.common.BaseEntity;
 import com.example.medical.common.DoctorStatus;
 import jakarta.persistence.Column;
@@ -9,6 +10,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.Table;
 
 @Entity
+@ChangeTracked("doctor")
 @Table(name = "doctors")
 public class Doctor extends BaseEntity {
 
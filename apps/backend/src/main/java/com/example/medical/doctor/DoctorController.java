@@ -20,9 +20,11 @@ import com.example.medical.common.DoctorStatus;
 public class DoctorController {
 
     private final DoctorService service;
+    private final DoctorDirectory directory;
 
-    public DoctorController(DoctorService service) {
+    public DoctorController(DoctorService service, DoctorDirectory directory) {
         this.service = service;
+        this.directory = directory;
     }
 
     @PostMapping
@@ -42,9 +44,20 @@ public class DoctorController {
         return DoctorResponse.from(service.get(id));
     }
 
+    /**
+     * Answered from {@link DoctorDirectory} without touching the database. Without {@code size}
+     * every match is returned; the total is always in {@code X-Total-Count}.
+     */
     @GetMapping
-    public List<DoctorResponse> list() {
-        return service.list().stream().map(DoctorResponse::from).toList();
+    public ResponseEntity<List<DoctorResponse>> list(@RequestParam(required = false) String specialty,
+                                                     @RequestParam(required = false) DoctorStatus status,
+                                                     @RequestParam(defaultValue = "0") int page,
+                                                     @RequestParam(required = false) Integer size) {
+        DoctorDirectory.Page result = directory.find(specialty, status, Math.max(page, 0),
+            size != null ? Math.max(size, 1) : Integer.MAX_VALUE);
+        return ResponseEntity.ok()
+            .header("X-Total-Count", String.valueOf(result.total()))
+            .body(result.content());
     }
 
     @PutMapping("/{id}/status")
@@ -0,0 +1,228 @@
+package com.example.medical.doctor;
+
+import com.example.medical.common.DoctorStatus;
+import com.example.medical.messaging.EntityChange;
+import com.example.medical.messaging.EntityChangeBatch;
+import com.example.medical.messaging.EventBus;
+import com.example.medical.messaging.EventSubscriber;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory doctor directory with posting lists per specialty and per status, each kept in
+ * name order so a filtered page is a slice. Readers work on an immutable snapshot swapped in
+ * on every change; writes copy only the posting lists they touch.
+ * <p>
+ * Loaded at startup, updated after commit by {@link DoctorService}, and refreshed from the
+ * change feed for doctors modified on other nodes.
+ */
+@Component
+public class DoctorDirectory implements EventSubscriber<EntityChangeBatch> {
+
+    static final Comparator<DoctorResponse> NAME_ORDER = Comparator
+        .comparing(DoctorResponse::getLastName, String.CASE_INSENSITIVE_ORDER)
+        .thenComparing(DoctorResponse::getFirstName, String.CASE_INSENSITIVE_ORDER)
+        .thenComparing(DoctorResponse::getId);
+
+    private final DoctorRepository repository;
+    private final TransactionTemplate primaryRead;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public DoctorDirectory(DoctorRepository repository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        Gauge.builder("medical.doctors.directory.size", this, directory -> directory.snapshot.all.size())
+            .description("Doctors held in the in-memory directory")
+            .register(meterRegistry);
+    }
+
+    public record Page(List<DoctorResponse> content, int total) {
+    }
+
+    /** Doctors matching the filters in name order; null filters match everything. */
+    public Page find(String specialty, DoctorStatus status, int page, int size) {
+        Snapshot current = snapshot;
+        List<DoctorResponse> bySpecialty = specialty != null
+            ? current.bySpecialty.getOrDefault(specialtyKey(specialty), List.of())
+            : null;
+        List<DoctorResponse> byStatus = status != null ? current.byStatus.getOrDefault(status, List.of()) : null;
+
+        List<DoctorResponse> matches;
+        if (bySpecialty != null && byStatus != null) {
+            // Walk the shorter posting list and check the other attribute on each entry
+            matches = new ArrayList<>();
+            boolean specialtyShorter = bySpecialty.size() <= byStatus.size();
+            for (DoctorResponse doctor : specialtyShorter ? bySpecialty : byStatus) {
+                boolean other = specialtyShorter
+                    ? doctor.getStatus() == status
+                    : specialtyKey(specialty).equals(specialtyKey(doctor.getSpecialty()));
+                if (other) {
+                    matches.add(doctor);
+                }
+            }
+        } else if (bySpecialty != null) {
+            matches = bySpecialty;
+        } else if (byStatus != null) {
+            matches = byStatus;
+        } else {
+            matches = current.all;
+        }
+
+        int from = (int) Math.min((long) page * size, matches.size());
+        int to = (int) Math.min((long) from + size, matches.size());
+        return new Page(matches.subList(from, to), matches.size());
+    }
+
+    /** Applies the doctor's current state once the surrounding transaction commits. */
+    void put(Doctor doctor) {
+        DoctorResponse entry = DoctorResponse.from(doctor);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(entry.getId(), entry);
+                }
+            });
+        } else {
+            apply(entry.getId(), entry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        snapshot = Snapshot.of(repository.findAll().stream().map(DoctorResponse::from).toList());
+    }
+
+    @Override
+    public String topic() {
+        return EventBus.TOPIC_ENTITY_CHANGES;
+    }
+
+    @Override
+    public Class<EntityChangeBatch> eventType() {
+        return EntityChangeBatch.class;
+    }
+
+    /** Re-reads doctors changed anywhere in the cluster; local changes arrive here too and are no-ops. */
+    @Override
+    public void handle(EntityChangeBatch event) {
+        for (EntityChange change : event.getChanges()) {
+            if (!"doctor".equals(change.entityType())) {
+                continue;
+            }
+            UUID id = change.entityId();
+            // Read-write so it runs on the primary; a lagging replica could roll the entry back
+            DoctorResponse current = change.operation() == EntityChange.Operation.DELETE
+                ? null
+                : primaryRead.execute(status -> repository.findById(id).map(DoctorResponse::from).orElse(null));
+            apply(id, current);
+        }
+    }
+
+    private synchronized void apply(UUID id, DoctorResponse doctor) {
+        snapshot = snapshot.with(id, doctor);
+    }
+
+    private static String specialtyKey(String specialty) {
+        return specialty == null ? "" : specialty.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Snapshot(Map<UUID, DoctorResponse> byId,
+                            List<DoctorResponse> all,
+                            Map<String, List<DoctorResponse>> bySpecialty,
+                            Map<DoctorStatus, List<DoctorResponse>> byStatus) {
+
+        static final Snapshot EMPTY = new Snapshot(Map.of(), List.of(), Map.of(), new EnumMap<>(DoctorStatus.class));
+
+        static Snapshot of(List<DoctorResponse> doctors) {
+            List<DoctorResponse> sorted = new ArrayList<>(doctors);
+            sorted.sort(NAME_ORDER);
+            Map<UUID, DoctorResponse> byId = new HashMap<>();
+            Map<String, List<DoctorResponse>> bySpecialty = new HashMap<>();
+            Map<DoctorStatus, List<DoctorResponse>> byStatus = new EnumMap<>(DoctorStatus.class);
+            for (DoctorResponse doctor : sorted) {
+                byId.put(doctor.getId(), doctor);
+                bySpecialty.computeIfAbsent(specialtyKey(doctor.getSpecialty()), key -> new ArrayList<>()).add(doctor);
+                byStatus.computeIfAbsent(doctor.getStatus(), key -> new ArrayList<>()).add(doctor);
+            }
+            bySpecialty.replaceAll((key, list) -> List.copyOf(list));
+            byStatus.replaceAll((key, list) -> List.copyOf(list));
+            return new Snapshot(Map.copyOf(byId), List.copyOf(sorted), bySpecialty, byStatus);
+        }
+
+        /** Copy with the doctor replaced, or removed when {@code doctor} is null. */
+        Snapshot with(UUID id, DoctorResponse doctor) {
+            DoctorResponse previous = byId.get(id);
+            Map<UUID, DoctorResponse> nextById = new HashMap<>(byId);
+            if (doctor != null) {
+                nextById.put(id, doctor);
+            } else {
+                nextById.remove(id);
+            }
+            Map<String, List<DoctorResponse>> nextBySpecialty = new HashMap<>(bySpecialty);
+            Map<DoctorStatus, List<DoctorResponse>> nextByStatus = new EnumMap<>(DoctorStatus.class);
+            nextByStatus.putAll(byStatus);
+            if (previous != null) {
+                remove(nextBySpecialty, specialtyKey(previous.getSpecialty()), previous);
+                remove(nextByStatus, previous.getStatus(), previous);
+            }
+            List<DoctorResponse> nextAll = replace(all, previous, doctor);
+            if (doctor != null) {
+                nextBySpecialty.put(specialtyKey(doctor.getSpecialty()),
+                    replace(nextBySpecialty.getOrDefault(specialtyKey(doctor.getSpecialty()), List.of()), null, doctor));
+                nextByStatus.put(doctor.getStatus(),
+                    replace(nextByStatus.getOrDefault(doctor.getStatus(), List.of()), null, doctor));
+            }
+            return new Snapshot(Map.copyOf(nextById), nextAll, nextBySpecialty, nextByStatus);
+        }
+
+        private static <K> void remove(Map<K, List<DoctorResponse>> postings, K key, DoctorResponse doctor) {
+            List<DoctorResponse> list = postings.get(key);
+            if (list == null) {
+                return;
+            }
+            List<DoctorResponse> next = replace(list, doctor, null);
+            if (next.isEmpty()) {
+                postings.remove(key);
+            } else {
+                postings.put(key, next);
+            }
+        }
+
+        /** Sorted copy of {@code list} without {@code removed} and with {@code added}. */
+        private static List<DoctorResponse> replace(List<DoctorResponse> list, DoctorResponse removed,
+                                                    DoctorResponse added) {
+            List<DoctorResponse> next = new ArrayList<>(list.size() + 1);
+            next.addAll(list);
+            if (removed != null) {
+                int index = Collections.binarySearch(next, removed, NAME_ORDER);
+                if (index >= 0) {
+                    next.remove(index);
+                }
+            }
+            if (added != null) {
+                int index = Collections.binarySearch(next, added, NAME_ORDER);
+                next.add(index >= 0 ? index : -index - 1, added);
+            }
+            return List.copyOf(next);
+        }
+    }
+}
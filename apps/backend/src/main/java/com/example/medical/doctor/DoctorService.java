@@ -1,24 +1,31 @@
 package com.example.medical.doctor;
 
+import com.example.medical.cache.ReferenceCache;
 import com.example.medical.common.DoctorStatus;
 import com.example.medical.exception.NotFoundException;
-import jakarta.transaction.Transactional;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
 public class DoctorService {
 
     private final DoctorRepository repository;
+    private final ReferenceCache referenceCache;
+    private final DoctorDirectory directory;
 
-    public DoctorService(DoctorRepository repository) {
+    public DoctorService(DoctorRepository repository, ReferenceCache referenceCache, DoctorDirectory directory) {
         this.repository = repository;
+        this.referenceCache = referenceCache;
+        this.directory = directory;
     }
 
     public Doctor create(Doctor doctor) {
-        return repository.save(doctor);
+        Doctor saved = repository.save(doctor);
+        directory.put(saved);
+        return saved;
     }
 
     public Doctor update(UUID id, Doctor payload) {
@@ -29,13 +36,18 @@ public class DoctorService {
         existing.setPhone(payload.getPhone());
         existing.setSpecialty(payload.getSpecialty());
         existing.setStatus(payload.getStatus());
+        // The email may have changed; dropping it before commit would let a reader re-cache the old one
+        referenceCache.invalidateDoctorAfterCommit(id);
+        directory.put(existing);
         return existing;
     }
 
+    @Transactional(readOnly = true)
     public Doctor get(UUID id) {
         return repository.findById(id).orElseThrow(() -> new NotFoundException("Doctor not found"));
     }
 
+    @Transactional(readOnly = true)
     public List<Doctor> list() {
         return repository.findAll();
     }
@@ -43,6 +55,7 @@ public class DoctorService {
     public Doctor changeStatus(UUID id, DoctorStatus status) {
         Doctor doctor = get(id);
         doctor.setStatus(status);
+        directory.put(doctor);
         return doctor;
     }
 }
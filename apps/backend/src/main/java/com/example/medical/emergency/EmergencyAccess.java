@@ -1,5 +1,6 @@
 package com.example.medical.emergency;
 
+import com.example.medical.cdc.ChangeTracked;
 import com.example.medical.common.BaseEntity;
 import com.example.medical.common.EmergencyAccessStatus;
 import com.example.medical.doctor.Doctor;
@@ -15,6 +16,7 @@ import jakarta.persistence.Table;
 import java.time.OffsetDateTime;
 
 @Entity
+@ChangeTracked("emergency_access")
 @Table(name = "emergency_access")
 public class EmergencyAccess extends BaseEntity {
 
@@ -2,6 +2,7 @@ package com.example.medical.emergency;
 
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -49,6 +50,12 @@ public class EmergencyAccessController {
         return service.activeForPatient(patientId).stream().map(EmergencyAccessResponse::from).toList();
     }
 
+    /** Break-glass check: whether the requester currently holds an active grant on the patient. */
+    @GetMapping("/check")
+    public Map<String, Boolean> check(@PathVariable UUID patientId, @RequestParam String requesterName) {
+        return Map.of("active", service.hasActiveGrant(patientId, requesterName));
+    }
+
     private EmergencyAccess map(EmergencyAccessRequest request) {
         EmergencyAccess access = new EmergencyAccess();
         access.setRequesterName(request.getRequesterName());
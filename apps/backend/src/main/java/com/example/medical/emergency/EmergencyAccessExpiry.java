@@ -0,0 +1,157 @@
+package com.example.medical.emergency;
+
+import com.example.medical.messaging.EntityChange;
+import com.example.medical.messaging.EntityChangeBatch;
+import com.example.medical.messaging.EventBus;
+import com.example.medical.messaging.EventSubscriber;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Moves approved emergency access grants to {@code EXPIRED} at their deadlines.
+ * <p>
+ * Approved grants sit in a {@link TimingWheel} seeded at startup from the partial
+ * {@code expires_at} index; when a deadline fires, a single bulk {@code UPDATE} expires every
+ * grant that is due, so grants approved on other nodes are covered by whichever wheel fires
+ * first. Approvals are added after commit locally and from the {@code entity-changes} feed for
+ * other nodes; a slow sweep catches anything a wheel never saw.
+ */
+@Component
+public class EmergencyAccessExpiry implements EventSubscriber<EntityChangeBatch> {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmergencyAccessExpiry.class);
+
+    private static final String EXPIRE_DUE = "UPDATE emergency_access SET status = 'EXPIRED', updated_at = now() "
+        + "WHERE status = 'APPROVED' AND expires_at <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TimingWheel<UUID> wheel;
+    private final Counter expiredCounter;
+
+    public EmergencyAccessExpiry(JdbcTemplate jdbcTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.emergency.expiry.tick-ms:1000}") long tickMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.wheel = new TimingWheel<>(tickMs, System.currentTimeMillis());
+        this.expiredCounter = Counter.builder("medical.emergency.grants.expired")
+            .description("Emergency access grants moved to EXPIRED")
+            .register(meterRegistry);
+        Gauge.builder("medical.emergency.grants.scheduled", this, EmergencyAccessExpiry::scheduled)
+            .description("Approved emergency access grants waiting for their deadline")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        expireDue();
+        List<Deadline> approved = jdbcTemplate.query(
+            "SELECT id, expires_at FROM emergency_access WHERE status = 'APPROVED' ORDER BY expires_at",
+            (rs, rowNum) -> new Deadline(rs.getObject("id", UUID.class), rs.getObject("expires_at", OffsetDateTime.class)));
+        synchronized (wheel) {
+            for (Deadline grant : approved) {
+                wheel.add(grant.grantId(), grant.expiresAt().toInstant().toEpochMilli());
+            }
+        }
+        logger.info("Scheduled expiry of {} approved emergency access grants", approved.size());
+    }
+
+    /** Schedules expiry of an approved grant once the current transaction commits. */
+    public void schedule(UUID grantId, OffsetDateTime expiresAt) {
+        long deadline = expiresAt.toInstant().toEpochMilli();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(grantId, deadline);
+                }
+            });
+        } else {
+            add(grantId, deadline);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.emergency.expiry.tick-ms:1000}")
+    public void tick() {
+        boolean[] due = { false };
+        synchronized (wheel) {
+            wheel.advance(System.currentTimeMillis(), grantId -> due[0] = true);
+        }
+        if (due[0]) {
+            expireDue();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.emergency.expiry.sweep-interval-ms:300000}",
+        initialDelayString = "${app.emergency.expiry.sweep-interval-ms:300000}")
+    public void sweep() {
+        expireDue();
+    }
+
+    @Override
+    public String topic() {
+        return EventBus.TOPIC_ENTITY_CHANGES;
+    }
+
+    @Override
+    public Class<EntityChangeBatch> eventType() {
+        return EntityChangeBatch.class;
+    }
+
+    /** Picks up approvals made on other nodes; re-adding a local one just re-schedules the same deadline. */
+    @Override
+    public void handle(EntityChangeBatch event) {
+        for (EntityChange change : event.getChanges()) {
+            if ("emergency_access".equals(change.entityType())
+                && change.operation() != EntityChange.Operation.DELETE
+                && change.changedFields().contains("status")) {
+                jdbcTemplate.query("SELECT expires_at FROM emergency_access WHERE id = ? AND status = 'APPROVED'",
+                        (rs, rowNum) -> rs.getObject("expires_at", OffsetDateTime.class), change.entityId())
+                    .forEach(expiresAt -> add(change.entityId(), expiresAt.toInstant().toEpochMilli()));
+            }
+        }
+    }
+
+    private void add(UUID grantId, long deadlineMs) {
+        synchronized (wheel) {
+            wheel.add(grantId, deadlineMs);
+        }
+    }
+
+    private int scheduled() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    private void expireDue() {
+        try {
+            int expired = jdbcTemplate.update(EXPIRE_DUE, Timestamp.from(Instant.now()));
+            if (expired > 0) {
+                expiredCounter.increment(expired);
+                logger.info("Expired {} emergency access grants", expired);
+            }
+        } catch (RuntimeException ex) {
+            // The grants stay APPROVED but are already treated as inactive; the next sweep retries
+            logger.warn("Failed to expire due emergency access grants", ex);
+        }
+    }
+
+    private record Deadline(UUID grantId, OffsetDateTime expiresAt) {
+    }
+}
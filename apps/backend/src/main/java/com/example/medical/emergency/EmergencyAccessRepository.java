@@ -1,10 +1,18 @@
 package com.example.medical.emergency;
 
 import com.example.medical.common.EmergencyAccessStatus;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface EmergencyAccessRepository extends JpaRepository<EmergencyAccess, UUID> {
     List<EmergencyAccess> findByPatientIdAndStatus(UUID patientId, EmergencyAccessStatus status);
+
+    /** Approved grants that have not reached their deadline; a range scan of idx_emergency_approved_patient. */
+    @Query("SELECT e FROM EmergencyAccess e WHERE e.patient.id = :patientId "
+        + "AND e.status = com.example.medical.common.EmergencyAccessStatus.APPROVED AND e.expiresAt > :now")
+    List<EmergencyAccess> findActiveByPatientId(@Param("patientId") UUID patientId, @Param("now") OffsetDateTime now);
 }
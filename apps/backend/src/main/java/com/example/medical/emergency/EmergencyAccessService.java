@@ -1,36 +1,38 @@
 package com.example.medical.emergency;
 
+import com.example.medical.cache.ReferenceCache;
 import com.example.medical.common.EmergencyAccessStatus;
 import com.example.medical.doctor.Doctor;
-import com.example.medical.doctor.DoctorRepository;
 import com.example.medical.exception.NotFoundException;
 import com.example.medical.patient.Patient;
-import com.example.medical.patient.PatientRepository;
-import jakarta.transaction.Transactional;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
 public class EmergencyAccessService {
 
     private final EmergencyAccessRepository repository;
-    private final PatientRepository patientRepository;
-    private final DoctorRepository doctorRepository;
+    private final ReferenceCache referenceCache;
+    private final EmergencyAccessExpiry expiry;
+    private final EmergencyGrantIndex grantIndex;
 
     public EmergencyAccessService(EmergencyAccessRepository repository,
-                                  PatientRepository patientRepository,
-                                  DoctorRepository doctorRepository) {
+                                  ReferenceCache referenceCache,
+                                  EmergencyAccessExpiry expiry,
+                                  EmergencyGrantIndex grantIndex) {
         this.repository = repository;
-        this.patientRepository = patientRepository;
-        this.doctorRepository = doctorRepository;
+        this.referenceCache = referenceCache;
+        this.expiry = expiry;
+        this.grantIndex = grantIndex;
     }
 
     public EmergencyAccess request(UUID patientId, EmergencyAccess payload) {
-        Patient patient = patientRepository.findById(patientId)
-            .orElseThrow(() -> new NotFoundException("Patient not found"));
+        Patient patient = referenceCache.patient(patientId);
         payload.setPatient(patient);
         payload.setStatus(EmergencyAccessStatus.PENDING);
         if (payload.getExpiresAt() == null) {
@@ -41,26 +43,33 @@ public class EmergencyAccessService {
 
     public EmergencyAccess approve(UUID requestId, UUID doctorId) {
         EmergencyAccess access = get(requestId);
-        Doctor doctor = doctorRepository.findById(doctorId)
-            .orElseThrow(() -> new NotFoundException("Doctor not found"));
+        Doctor doctor = referenceCache.doctor(doctorId);
         access.setApprovedBy(doctor);
         access.setStatus(EmergencyAccessStatus.APPROVED);
+        expiry.schedule(access.getId(), access.getExpiresAt());
+        grantIndex.put(access);
         return access;
     }
 
     public EmergencyAccess deny(UUID requestId) {
         EmergencyAccess access = get(requestId);
         access.setStatus(EmergencyAccessStatus.DENIED);
+        grantIndex.put(access);
         return access;
     }
 
+    @Transactional(readOnly = true)
     public List<EmergencyAccess> activeForPatient(UUID patientId) {
-        return repository.findByPatientIdAndStatus(patientId, EmergencyAccessStatus.APPROVED)
-            .stream()
-            .filter(a -> a.getExpiresAt().isAfter(OffsetDateTime.now()))
-            .toList();
+        return repository.findActiveByPatientId(patientId, OffsetDateTime.now());
     }
 
+    /** Whether the requester holds an approved, unexpired grant on the patient; answered from memory. */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean hasActiveGrant(UUID patientId, String requesterName) {
+        return grantIndex.isActive(patientId, requesterName);
+    }
+
+    @Transactional(readOnly = true)
     public EmergencyAccess get(UUID requestId) {
         return repository.findById(requestId)
             .orElseThrow(() -> new NotFoundException("Emergency access not found"));
@@ -0,0 +1,211 @@
+package com.example.medical.emergency;
+
+import com.example.medical.common.EmergencyAccessStatus;
+import com.example.medical.messaging.EntityChange;
+import com.example.medical.messaging.EntityChangeBatch;
+import com.example.medical.messaging.EventBus;
+import com.example.medical.messaging.EventSubscriber;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Approved emergency access grants by patient, so break-glass checks need no query. Each
+ * patient maps to a small immutable array of grants replaced on every change; a check is one
+ * map lookup and a scan of that array against the clock, so a grant stops counting the
+ * instant it expires whether or not {@link EmergencyAccessExpiry} has swept it yet.
+ * <p>
+ * Updated after commit by {@link EmergencyAccessService} and refreshed from the change feed
+ * for grants changed on other nodes. The feed is lossy, so the index is also rebuilt from the
+ * table at startup and every {@code rebuild-interval-ms}, which bounds how long a revocation
+ * made elsewhere can go unseen. A rebuild leaves alone any grant changed while its query ran,
+ * so a stale read never brings back a grant that was just denied.
+ */
+@Component
+public class EmergencyGrantIndex implements EventSubscriber<EntityChangeBatch> {
+
+    private static final Grant[] NONE = new Grant[0];
+    private static final String GRANT_COLUMNS = "id, patient_id, requester_name, expires_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<UUID, Grant[]> byPatient = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> patientByGrant = new ConcurrentHashMap<>();
+    private final AtomicLong changes = new AtomicLong();
+    private final Map<UUID, Long> changedAt = new ConcurrentHashMap<>();
+
+    public EmergencyGrantIndex(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        Gauge.builder("medical.emergency.grants.indexed", patientByGrant, Map::size)
+            .description("Approved emergency access grants held in the in-memory index")
+            .register(meterRegistry);
+    }
+
+    /** Whether {@code requesterName} holds an approved grant on the patient that expires after now. */
+    public boolean isActive(UUID patientId, String requesterName) {
+        Grant[] grants = byPatient.get(patientId);
+        if (grants == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        for (Grant grant : grants) {
+            if (grant.expiresAtMs() > now && grant.requesterName().equals(requesterName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Applies the grant's state once the surrounding transaction commits. */
+    void put(EmergencyAccess access) {
+        UUID patientId = access.getPatient().getId();
+        Grant grant = access.getStatus() == EmergencyAccessStatus.APPROVED
+            ? new Grant(access.getId(), access.getRequesterName(), access.getExpiresAt().toInstant().toEpochMilli())
+            : null;
+        UUID grantId = access.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change(grantId, patientId, grant);
+                }
+            });
+        } else {
+            change(grantId, patientId, grant);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /** Brings the index in line with the table, catching changes the feed never delivered. */
+    @Scheduled(fixedDelayString = "${app.emergency.grants.rebuild-interval-ms:30000}",
+        initialDelayString = "${app.emergency.grants.rebuild-interval-ms:30000}")
+    public void rebuild() {
+        long started = changes.get();
+        List<Row> rows = jdbcTemplate.query("SELECT " + GRANT_COLUMNS + " FROM emergency_access "
+            + "WHERE status = 'APPROVED' AND expires_at > now()", EmergencyGrantIndex::row);
+        Set<UUID> approved = new HashSet<>();
+        for (Row row : rows) {
+            UUID grantId = row.grant().grantId();
+            approved.add(grantId);
+            if (unchangedSince(grantId, started)) {
+                apply(grantId, row.patientId(), row.grant());
+            }
+        }
+        for (Map.Entry<UUID, UUID> indexed : patientByGrant.entrySet()) {
+            UUID grantId = indexed.getKey();
+            if (!approved.contains(grantId) && unchangedSince(grantId, started)) {
+                apply(grantId, indexed.getValue(), null);
+            }
+        }
+        changedAt.values().removeIf(change -> change <= started);
+    }
+
+    /** Drops expired grants; checks already ignore them, this only bounds memory. */
+    @Scheduled(fixedDelayString = "${app.emergency.grants.prune-interval-ms:60000}")
+    public void prune() {
+        long now = System.currentTimeMillis();
+        for (UUID patientId : byPatient.keySet()) {
+            byPatient.computeIfPresent(patientId, (id, grants) -> {
+                Grant[] live = Arrays.stream(grants).filter(grant -> grant.expiresAtMs() > now).toArray(Grant[]::new);
+                Arrays.stream(grants).filter(grant -> grant.expiresAtMs() <= now)
+                    .forEach(grant -> patientByGrant.remove(grant.grantId()));
+                return live.length == 0 ? null : live;
+            });
+        }
+    }
+
+    @Override
+    public String topic() {
+        return EventBus.TOPIC_ENTITY_CHANGES;
+    }
+
+    @Override
+    public Class<EntityChangeBatch> eventType() {
+        return EntityChangeBatch.class;
+    }
+
+    /** Re-reads grants changed anywhere in the cluster; local changes arrive here too and are no-ops. */
+    @Override
+    public void handle(EntityChangeBatch event) {
+        for (EntityChange change : event.getChanges()) {
+            if (!"emergency_access".equals(change.entityType())) {
+                continue;
+            }
+            UUID grantId = change.entityId();
+            List<Row> rows = change.operation() == EntityChange.Operation.DELETE
+                ? List.of()
+                : jdbcTemplate.query("SELECT " + GRANT_COLUMNS + ", status FROM emergency_access WHERE id = ?",
+                    (rs, rowNum) -> "APPROVED".equals(rs.getString("status")) ? row(rs, rowNum) : null, grantId);
+            Row row = rows.isEmpty() ? null : rows.get(0);
+            if (row != null) {
+                change(grantId, row.patientId(), row.grant());
+            } else {
+                UUID patientId = patientByGrant.get(grantId);
+                if (patientId != null) {
+                    change(grantId, patientId, null);
+                }
+            }
+        }
+    }
+
+    /** Applies a change seen after commit, newer than any rebuild query already running. */
+    private void change(UUID grantId, UUID patientId, Grant grant) {
+        changedAt.put(grantId, changes.incrementAndGet());
+        apply(grantId, patientId, grant);
+    }
+
+    private boolean unchangedSince(UUID grantId, long started) {
+        Long change = changedAt.get(grantId);
+        return change == null || change <= started;
+    }
+
+    /** Replaces the grant in its patient's entry, or removes it when {@code grant} is null. */
+    private void apply(UUID grantId, UUID patientId, Grant grant) {
+        byPatient.compute(patientId, (id, grants) -> {
+            Grant[] current = grants != null ? grants : NONE;
+            Grant[] next = Arrays.stream(current).filter(existing -> !existing.grantId().equals(grantId))
+                .toArray(Grant[]::new);
+            if (grant != null) {
+                next = Arrays.copyOf(next, next.length + 1);
+                next[next.length - 1] = grant;
+            }
+            return next.length == 0 ? null : next;
+        });
+        if (grant != null) {
+            patientByGrant.put(grantId, patientId);
+        } else {
+            patientByGrant.remove(grantId);
+        }
+    }
+
+    private static Row row(ResultSet rs, int rowNum) throws SQLException {
+        return new Row(rs.getObject("patient_id", UUID.class), new Grant(rs.getObject("id", UUID.class),
+            rs.getString("requester_name"), rs.getObject("expires_at", OffsetDateTime.class).toInstant().toEpochMilli()));
+    }
+
+    private record Grant(UUID grantId, String requesterName, long expiresAtMs) {
+    }
+
+    private record Row(UUID patientId, Grant grant) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.medical.emergency;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: {@value #LEVELS} levels of {@value #SLOTS} slots, level {@code n}
+ * slots spanning {@code SLOTS^n} ticks. Adding and firing are O(1); entries far in the future sit
+ * in a coarse slot and cascade down a level each time the finer wheel wraps. Deadlines beyond
+ * the span of the top level are parked in its last slot and re-placed when they cascade.
+ * <p>
+ * Re-adding a pending item replaces its deadline. The old entry stays in its slot but no longer
+ * matches the item's current schedule, so it is dropped when it cascades or fires.
+ * <p>
+ * Not thread-safe; callers synchronize.
+ */
+final class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private final long tickMs;
+    private final List<List<Entry<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final Map<T, Long> pending = new HashMap<>();
+    private long currentTick;
+    private long scheduled;
+
+    TimingWheel(long tickMs, long startMs) {
+        this.tickMs = tickMs;
+        this.currentTick = startMs / tickMs;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedules {@code item} to fire at the first tick at or after {@code deadlineMs}, replacing
+     * any deadline it already had. Returns whether the item was not already pending.
+     */
+    boolean add(T item, long deadlineMs) {
+        long id = ++scheduled;
+        boolean added = pending.put(item, id) == null;
+        // The current tick has already fired, so past deadlines go to the next one
+        place(new Entry<>(item, Math.floorDiv(deadlineMs + tickMs - 1, tickMs), id), currentTick + 1);
+        return added;
+    }
+
+    /** Moves the wheel to {@code nowMs}, handing every item whose deadline has passed to {@code expired}. */
+    void advance(long nowMs, Consumer<T> expired) {
+        long target = nowMs / tickMs;
+        while (currentTick < target) {
+            currentTick++;
+            // Cascade coarser levels first so their entries land in slots that fire below
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    List<Entry<T>> slot = slot(level, currentTick);
+                    List<Entry<T>> cascading = new ArrayList<>(slot);
+                    slot.clear();
+                    for (Entry<T> entry : cascading) {
+                        if (isCurrent(entry)) {
+                            place(entry, currentTick);
+                        }
+                    }
+                }
+            }
+            List<Entry<T>> due = slot(0, currentTick);
+            for (Entry<T> entry : due) {
+                if (pending.remove(entry.item(), entry.id())) {
+                    expired.accept(entry.item());
+                }
+            }
+            due.clear();
+        }
+    }
+
+    int size() {
+        return pending.size();
+    }
+
+    private void place(Entry<T> entry, long earliestTick) {
+        long due = Math.max(entry.dueTick(), earliestTick);
+        long delta = due - currentTick;
+        if (delta >= SPAN) {
+            slot(LEVELS - 1, currentTick + SPAN - (1L << (SLOT_BITS * (LEVELS - 1)))).add(entry);
+            return;
+        }
+        int level = 0;
+        while (delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        slot(level, due).add(new Entry<>(entry.item(), due, entry.id()));
+    }
+
+    /** Whether the entry is still the item's schedule rather than one replaced by a later add. */
+    private boolean isCurrent(Entry<T> entry) {
+        Long id = pending.get(entry.item());
+        return id != null && id == entry.id();
+    }
+
+    private List<Entry<T>> slot(int level, long tick) {
+        return slots.get(level * SLOTS + (int) ((tick >>> (SLOT_BITS * level)) & (SLOTS - 1)));
+    }
+
+    private record Entry<T>(T item, long dueTick, long id) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.medical.export;
+
+import com.example.medical.observability.AuditLogger;
+import com.example.medical.patient.PatientService;
+import com.example.medical.security.JwtAuthenticationDetails;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * NDJSON exports of patient records. Responses are gzip-encoded when the client sends
+ * {@code Accept-Encoding: gzip}.
+ */
+@RestController
+public class PatientExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final PatientExporter exporter;
+    private final PatientService patientService;
+    private final AuditLogger auditLogger;
+
+    public PatientExportController(PatientExporter exporter, PatientService patientService, AuditLogger auditLogger) {
+        this.exporter = exporter;
+        this.patientService = patientService;
+        this.auditLogger = auditLogger;
+    }
+
+    @GetMapping("/patients/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportPatient(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Fails with 404 before any of the body is committed
+        patientService.get(id);
+        UUID userId = currentUserId();
+        auditLogger.logDataExported(userId, "patient", id);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        return stream("patient-" + id + ".ndjson", gzip, out -> exporter.exportPatient(id, out));
+    }
+
+    /** Every patient record; admin only through the {@code /admin/**} security rule. */
+    @GetMapping("/admin/patients/export")
+    public ResponseEntity<StreamingResponseBody> exportAll(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        UUID userId = currentUserId();
+        auditLogger.logDataExported(userId, "patients", null);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        return stream("patients.ndjson", gzip, out -> {
+            long rows = exporter.exportAll(out);
+            auditLogger.logBulkDataExported(userId, "patients", rows);
+        });
+    }
+
+    private static ResponseEntity<StreamingResponseBody> stream(String filename, boolean gzip, Export export) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(out -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024)) {
+                    export.write(compressed);
+                }
+            } else {
+                export.write(out);
+            }
+        });
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    private static UUID currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getDetails() instanceof JwtAuthenticationDetails details) {
+            return details.getUserId();
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface Export {
+        void write(OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.medical.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes patient records as NDJSON, one {@code {"type": ..., "data": {...}}} line per row.
+ * Rows are read through a server-side cursor {@code app.export.fetch-size} rows at a time and
+ * written straight to the output, so memory use does not grow with the size of the export.
+ */
+@Service
+public class PatientExporter {
+
+    private static final String PATIENT_COLUMNS =
+        "id, first_name, last_name, dob, gender, email, phone, status, created_at, updated_at";
+    private static final String REPORT_COLUMNS =
+        "id, patient_id, doctor_id, title, report_type, storage_url, summary, status, report_date, created_at, updated_at";
+    private static final String PRESCRIPTION_COLUMNS =
+        "id, patient_id, doctor_id, drug_name, dosage, frequency, route, start_date, end_date, status, created_at, updated_at";
+    private static final String EMERGENCY_ACCESS_COLUMNS =
+        "id, patient_id, requester_name, reason, approved_by_doctor_id, expires_at, status, notes, created_at, updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final Counter singleRows;
+    private final Counter bulkRows;
+
+    public PatientExporter(DataSource dataSource,
+                           PlatformTransactionManager transactionManager,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // The Postgres driver only uses a cursor inside a transaction
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.singleRows = Counter.builder("medical.export.rows")
+            .description("Rows written by patient exports")
+            .tag("scope", "patient")
+            .register(meterRegistry);
+        this.bulkRows = Counter.builder("medical.export.rows")
+            .description("Rows written by patient exports")
+            .tag("scope", "bulk")
+            .register(meterRegistry);
+    }
+
+    /** Exports one patient with their reports, prescriptions and emergency access requests. */
+    public long exportPatient(UUID patientId, OutputStream out) throws IOException {
+        long rows = write(out, generator -> {
+            long written = stream(generator, "patient", "SELECT " + PATIENT_COLUMNS + " FROM patients WHERE id = ?", patientId);
+            written += stream(generator, "report", "SELECT " + REPORT_COLUMNS
+                + " FROM medical_reports WHERE patient_id = ? ORDER BY created_at", patientId);
+            written += stream(generator, "prescription", "SELECT " + PRESCRIPTION_COLUMNS
+                + " FROM prescriptions WHERE patient_id = ? ORDER BY created_at", patientId);
+            written += stream(generator, "emergency_access", "SELECT " + EMERGENCY_ACCESS_COLUMNS
+                + " FROM emergency_access WHERE patient_id = ? ORDER BY created_at", patientId);
+            return written;
+        });
+        singleRows.increment(rows);
+        return rows;
+    }
+
+    /**
+     * Exports every patient, then every report, prescription and emergency access request.
+     * Child rows carry {@code patient_id} so they can be joined back without the server
+     * holding any patient in memory.
+     */
+    public long exportAll(OutputStream out) throws IOException {
+        long rows = write(out, generator -> {
+            long written = stream(generator, "patient", "SELECT " + PATIENT_COLUMNS + " FROM patients ORDER BY id");
+            written += stream(generator, "report", "SELECT " + REPORT_COLUMNS + " FROM medical_reports ORDER BY patient_id");
+            written += stream(generator, "prescription", "SELECT " + PRESCRIPTION_COLUMNS
+                + " FROM prescriptions ORDER BY patient_id");
+            written += stream(generator, "emergency_access", "SELECT " + EMERGENCY_ACCESS_COLUMNS
+                + " FROM emergency_access ORDER BY patient_id");
+            return written;
+        });
+        bulkRows.increment(rows);
+        return rows;
+    }
+
+    private long write(OutputStream out, Section sections) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.setRootValueSeparator(null);
+            Long rows = readOnlyTransaction.execute(status -> sections.write(generator));
+            return rows != null ? rows : 0;
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private long stream(JsonGenerator generator, String type, String sql, Object... args) {
+        long[] rows = {0};
+        jdbcTemplate.query(sql, rs -> {
+            try {
+                writeRow(generator, type, rs);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            rows[0]++;
+        }, args);
+        return rows[0];
+    }
+
+    private static void writeRow(JsonGenerator generator, String type, ResultSet rs) throws IOException, SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        generator.writeStartObject();
+        generator.writeStringField("type", type);
+        generator.writeObjectFieldStart("data");
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            generator.writeFieldName(meta.getColumnLabel(i));
+            Object value = switch (meta.getColumnType(i)) {
+                case Types.DATE -> rs.getDate(i) != null ? rs.getDate(i).toLocalDate().toString() : null;
+                case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> {
+                    OffsetDateTime timestamp = rs.getObject(i, OffsetDateTime.class);
+                    yield timestamp != null ? timestamp.toString() : null;
+                }
+                default -> rs.getObject(i);
+            };
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @FunctionalInterface
+    private interface Section {
+        long write(JsonGenerator generator);
+    }
+}
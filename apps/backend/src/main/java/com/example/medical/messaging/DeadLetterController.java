@@ -0,0 +1,25 @@
+package com.example.medical.messaging;
+
+import java.util.Map;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@ConditionalOnProperty(name = "app.events.bus", havingValue = "kafka", matchIfMissing = true)
+@RequestMapping("/admin/kafka/dead-letters")
+public class DeadLetterController {
+
+    private final DeadLetterReplayService replayService;
+
+    public DeadLetterController(DeadLetterReplayService replayService) {
+        this.replayService = replayService;
+    }
+
+    @PostMapping("/replay")
+    public Map<String, Object> replay(@RequestParam(defaultValue = "1000") int max) {
+        return Map.of("replayed", replayService.replay(max));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.medical.messaging;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Moves dead-lettered document events back onto the main topic once the underlying problem
+ * is fixed. Progress is tracked as the committed offset of a dedicated consumer group, so each
+ * record is replayed once no matter how many times the replay is triggered.
+ */
+@Service
+@ConditionalOnProperty(name = "app.events.bus", havingValue = "kafka", matchIfMissing = true)
+public class DeadLetterReplayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadLetterReplayService.class);
+    private static final String REPLAY_GROUP = "medical-dlt-replay";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    private final ConsumerFactory<String, byte[]> deadLetterConsumerFactory;
+    private final KafkaTemplate<String, byte[]> retryTemplate;
+
+    public DeadLetterReplayService(@Qualifier("deadLetterConsumerFactory") ConsumerFactory<String, byte[]> deadLetterConsumerFactory,
+                                   @Qualifier("retryKafkaTemplate") KafkaTemplate<String, byte[]> retryTemplate) {
+        this.deadLetterConsumerFactory = deadLetterConsumerFactory;
+        this.retryTemplate = retryTemplate;
+    }
+
+    /** Republishes up to {@code max} dead-lettered records and returns how many were replayed. */
+    public synchronized int replay(int max) {
+        try (Consumer<String, byte[]> consumer = deadLetterConsumerFactory.createConsumer(REPLAY_GROUP, null)) {
+            List<TopicPartition> partitions = consumer.partitionsFor(DocumentRetryRouter.DEAD_LETTER_TOPIC).stream()
+                .map(info -> new TopicPartition(info.topic(), info.partition()))
+                .toList();
+            consumer.assign(partitions);
+
+            List<CompletableFuture<?>> sends = new ArrayList<>();
+            Map<TopicPartition, OffsetAndMetadata> replayed = new HashMap<>();
+            while (sends.size() < max) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    break;
+                }
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    if (sends.size() == max) {
+                        break;
+                    }
+                    sends.add(retryTemplate.send(toMainTopic(record)));
+                    replayed.put(new TopicPartition(record.topic(), record.partition()),
+                        new OffsetAndMetadata(record.offset() + 1));
+                }
+            }
+
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+            if (!replayed.isEmpty()) {
+                consumer.commitSync(replayed);
+            }
+            logger.info("Replayed {} dead-lettered document events", sends.size());
+            return sends.size();
+        }
+    }
+
+    /** Keeps the payload, key and schema id; the retry bookkeeping starts over. */
+    private static ProducerRecord<String, byte[]> toMainTopic(ConsumerRecord<String, byte[]> record) {
+        ProducerRecord<String, byte[]> replay =
+            new ProducerRecord<>(KafkaProducerService.TOPIC_DOCUMENT_UPLOADED, record.key(), record.value());
+        Header schema = record.headers().lastHeader(DomainEventCodec.SCHEMA_HEADER);
+        if (schema != null) {
+            replay.headers().add(schema);
+        }
+        return replay;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.medical.messaging;
+
+import com.example.medical.ai.AIService;
+import com.example.medical.common.ReportStatus;
+import com.example.medical.exception.NotFoundException;
+import com.example.medical.exception.ServiceOverloadedException;
+import com.example.medical.observability.MetricsService;
+import com.example.medical.report.MedicalReportService;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.CompletionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DocumentAnalysisProcessor implements EventSubscriber<DocumentUploadedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentAnalysisProcessor.class);
+
+    private final AIService aiService;
+    private final MedicalReportService reportService;
+    private final MetricsService metricsService;
+    private final EventIdempotencyGuard idempotencyGuard;
+    private final Duration limiterWait;
+
+    public DocumentAnalysisProcessor(AIService aiService,
+                                     MedicalReportService reportService,
+                                     MetricsService metricsService,
+                                     EventIdempotencyGuard idempotencyGuard,
+                                     @Value("${ai.service.limiter.queue-timeout-ms:30000}") long limiterWaitMs) {
+        this.aiService = aiService;
+        this.reportService = reportService;
+        this.metricsService = metricsService;
+        this.idempotencyGuard = idempotencyGuard;
+        this.limiterWait = Duration.ofMillis(limiterWaitMs);
+    }
+
+    @Override
+    public String topic() {
+        return EventBus.TOPIC_DOCUMENT_UPLOADED;
+    }
+
+    @Override
+    public Class<DocumentUploadedEvent> eventType() {
+        return DocumentUploadedEvent.class;
+    }
+
+    @Override
+    public void handle(DocumentUploadedEvent event) {
+        metricsService.recordDocumentConsumeLag(sinceUpload(event));
+        process(event);
+    }
+
+    @Override
+    public void onRetriesExhausted(DocumentUploadedEvent event, Throwable failure) {
+        markFailed(event);
+    }
+
+    /**
+     * Analyzes the report and marks it READY. Failures propagate so the caller can schedule
+     * a retry; the report stays PROCESSING until it succeeds or {@link #markFailed} is called.
+     * Waits for an ai-service limiter slot first; a {@link ServiceOverloadedException} means the
+     * report was never analyzed and must be redelivered rather than counted as a failure.
+     */
+    public void process(DocumentUploadedEvent event) {
+        if (idempotencyGuard.isDuplicate(event.getEventId())) {
+            logger.debug("Skipping already processed event {} for report {}", event.getEventId(), event.getReportId());
+            return;
+        }
+        try {
+            aiService.analyzeReport(event.getReportId(), limiterWait);
+            reportService.updateStatus(event.getReportId(), ReportStatus.READY);
+            metricsService.incrementDocumentAnalyzed();
+            metricsService.recordDocumentAnalysisLag(sinceUpload(event));
+        } catch (NotFoundException ex) {
+            // Report was deleted before we got to it; nothing left to analyze
+            logger.warn("Skipping analysis for missing report {}", event.getReportId());
+        }
+        idempotencyGuard.markProcessed(event.getEventId());
+    }
+
+    /** Gives up on the report after its retries are exhausted. */
+    public void markFailed(DocumentUploadedEvent event) {
+        if (idempotencyGuard.isDuplicate(event.getEventId())) {
+            return;
+        }
+        metricsService.incrementDocumentAnalysisFailed();
+        try {
+            reportService.updateStatus(event.getReportId(), ReportStatus.ERROR);
+        } catch (NotFoundException ex) {
+            logger.warn("Cannot mark missing report {} as failed", event.getReportId());
+        }
+    }
+
+    /** The failure, unwrapped from any {@code CompletionException}, if it is limiter backpressure. */
+    static ServiceOverloadedException overload(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        return cause instanceof ServiceOverloadedException overloaded ? overloaded : null;
+    }
+
+    static Duration sinceUpload(DocumentUploadedEvent event) {
+        return event.getTimestamp() != null
+            ? Duration.between(event.getTimestamp(), OffsetDateTime.now())
+            : Duration.ZERO;
+    }
+}
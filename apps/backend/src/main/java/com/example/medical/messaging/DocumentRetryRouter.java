@@ -0,0 +1,157 @@
+package com.example.medical.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves failed document-uploaded records through tiered retry topics and finally to the
+ * dead-letter topic, so a failing record never holds up its partition on the main topic.
+ * <p>
+ * Tier {@code n} holds records that have failed {@code n + 1} times; each tier waits its own
+ * configured delay before the record is attempted again. The failure reason, exception type
+ * and origin of the record travel in headers.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.bus", havingValue = "kafka", matchIfMissing = true)
+public class DocumentRetryRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentRetryRouter.class);
+    private static final LogAccessor logAccessor = new LogAccessor(DocumentRetryRouter.class);
+
+    public static final String RETRY_TOPIC_PREFIX = "document-uploaded-retry-";
+    public static final String DEAD_LETTER_TOPIC = "document-uploaded-dlt";
+    public static final int RETRY_TIERS = 3;
+
+    public static final String ATTEMPT_HEADER = "x-retry-attempt";
+    public static final String DUE_AT_HEADER = "x-retry-due-at";
+    public static final String FAILURE_REASON_HEADER = "x-failure-reason";
+    public static final String FAILURE_EXCEPTION_HEADER = "x-failure-exception";
+    public static final String ORIGINAL_TOPIC_HEADER = "x-original-topic";
+    public static final String ORIGINAL_PARTITION_HEADER = "x-original-partition";
+    public static final String ORIGINAL_OFFSET_HEADER = "x-original-offset";
+
+    private final KafkaTemplate<String, byte[]> retryTemplate;
+    private final List<Long> delaysMs;
+    private final Counter retriedCounter;
+    private final Counter deadLetteredCounter;
+
+    public DocumentRetryRouter(@Qualifier("retryKafkaTemplate") KafkaTemplate<String, byte[]> retryTemplate,
+                               @Value("${app.kafka.retry.delays-ms:5000,30000,300000}") List<Long> delaysMs,
+                               MeterRegistry meterRegistry) {
+        if (delaysMs.size() != RETRY_TIERS) {
+            throw new IllegalArgumentException("app.kafka.retry.delays-ms needs exactly " + RETRY_TIERS + " delays");
+        }
+        this.retryTemplate = retryTemplate;
+        this.delaysMs = delaysMs;
+        this.retriedCounter = Counter.builder("medical.documents.retried")
+            .description("Document events forwarded to a retry topic")
+            .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("medical.documents.dead-lettered")
+            .description("Document events forwarded to the dead-letter topic")
+            .register(meterRegistry);
+    }
+
+    public boolean hasRetriesLeft(ConsumerRecord<String, ?> record) {
+        return record.value() != null && attemptOf(record) < RETRY_TIERS;
+    }
+
+    /** Epoch millis at which a retry-topic record may be attempted again. */
+    public long dueAt(ConsumerRecord<String, ?> record) {
+        String dueAt = header(record.headers(), DUE_AT_HEADER);
+        return dueAt != null ? Long.parseLong(dueAt) : 0L;
+    }
+
+    /**
+     * Forwards a failed record to its next retry tier, or to the dead-letter topic when it has
+     * none left or could not be deserialized. Completes once the broker has the copy.
+     */
+    public CompletableFuture<Void> route(ConsumerRecord<String, DocumentUploadedEvent> record, Throwable failure) {
+        byte[] payload;
+        Throwable cause = failure;
+        if (record.value() == null) {
+            DeserializationException poison = SerializationUtils.getExceptionFromHeader(
+                record, SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, logAccessor);
+            payload = poison != null ? poison.getData() : null;
+            cause = poison != null ? poison : failure;
+        } else {
+            payload = DomainEventCodec.encode(record.value());
+        }
+
+        int attempt = attemptOf(record);
+        boolean retry = hasRetriesLeft(record);
+        String topic = retry ? RETRY_TOPIC_PREFIX + attempt : DEAD_LETTER_TOPIC;
+
+        ProducerRecord<String, byte[]> forward = new ProducerRecord<>(topic, record.key(), payload);
+        Headers headers = forward.headers();
+        if (record.value() != null) {
+            headers.add(DomainEventCodec.SCHEMA_HEADER,
+                DomainEventCodec.schemaHeader(DomainEventCodec.schemaIdOf(record.value())));
+        } else {
+            Header schema = record.headers().lastHeader(DomainEventCodec.SCHEMA_HEADER);
+            if (schema != null) {
+                headers.add(schema);
+            }
+        }
+        headers.add(ATTEMPT_HEADER, bytes(attempt + 1));
+        if (retry) {
+            headers.add(DUE_AT_HEADER, bytes(System.currentTimeMillis() + delaysMs.get(attempt)));
+        }
+        headers.add(FAILURE_REASON_HEADER, bytes(cause != null ? String.valueOf(cause.getMessage()) : "unknown"));
+        headers.add(FAILURE_EXCEPTION_HEADER, bytes(cause != null ? cause.getClass().getName() : "unknown"));
+        copyOrigin(record, headers);
+
+        if (retry) {
+            retriedCounter.increment();
+            logger.info("Retrying report {} in {} after attempt {}", record.key(), topic, attempt + 1);
+        } else {
+            deadLetteredCounter.increment();
+            logger.error("Dead-lettering report {} after attempt {}: {}", record.key(), attempt + 1,
+                cause != null ? cause.toString() : "unknown");
+        }
+        return retryTemplate.send(forward).thenAccept(result -> { });
+    }
+
+    private static void copyOrigin(ConsumerRecord<String, ?> record, Headers headers) {
+        String originalTopic = header(record.headers(), ORIGINAL_TOPIC_HEADER);
+        if (originalTopic != null) {
+            headers.add(ORIGINAL_TOPIC_HEADER, bytes(originalTopic));
+            headers.add(ORIGINAL_PARTITION_HEADER, bytes(header(record.headers(), ORIGINAL_PARTITION_HEADER)));
+            headers.add(ORIGINAL_OFFSET_HEADER, bytes(header(record.headers(), ORIGINAL_OFFSET_HEADER)));
+        } else {
+            headers.add(ORIGINAL_TOPIC_HEADER, bytes(record.topic()));
+            headers.add(ORIGINAL_PARTITION_HEADER, bytes(record.partition()));
+            headers.add(ORIGINAL_OFFSET_HEADER, bytes(record.offset()));
+        }
+    }
+
+    private static int attemptOf(ConsumerRecord<String, ?> record) {
+        String attempt = header(record.headers(), ATTEMPT_HEADER);
+        return attempt != null ? Integer.parseInt(attempt) : 0;
+    }
+
+    static String header(Headers headers, String key) {
+        Header header = headers.lastHeader(key);
+        return header != null && header.value() != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    private static byte[] bytes(Object value) {
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,12 +1,13 @@
 package com.example.medical.messaging;
 
+import com.example.medical.common.UuidV7Generator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
-public class DocumentUploadedEvent {
+public class DocumentUploadedEvent implements DomainEvent {
     @JsonProperty("event_id")
-    private UUID eventId = UUID.randomUUID();
+    private UUID eventId = UuidV7Generator.next();
 
     @JsonProperty("report_id")
     private UUID reportId;
@@ -28,6 +29,15 @@ public class DocumentUploadedEvent {
         this.storageUrl = storageUrl;
     }
 
+    public DocumentUploadedEvent(UUID eventId, UUID reportId, UUID patientId, String storageUrl, OffsetDateTime timestamp) {
+        this.eventId = eventId;
+        this.reportId = reportId;
+        this.patientId = patientId;
+        this.storageUrl = storageUrl;
+        this.timestamp = timestamp;
+    }
+
+    @Override
     public UUID getEventId() {
         return eventId;
     }
@@ -44,6 +54,7 @@ public class DocumentUploadedEvent {
         return storageUrl;
     }
 
+    @Override
     public OffsetDateTime getTimestamp() {
         return timestamp;
     }
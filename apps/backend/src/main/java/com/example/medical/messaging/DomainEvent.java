@@ -0,0 +1,14 @@
+package com.example.medical.messaging;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * An event published to the event stream. Every type has a schema in {@link DomainEventCodec}.
+ */
+public interface DomainEvent {
+
+    UUID getEventId();
+
+    OffsetDateTime getTimestamp();
+}
@@ -0,0 +1,296 @@
+package com.example.medical.messaging;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding for {@link DomainEvent}s.
+ * <p>
+ * The schema id travels in the {@value #SCHEMA_HEADER} record header and names the event
+ * type; the payload starts with a one-byte schema version followed by the fields in
+ * declaration order. UUIDs are written as two longs, timestamps as UTC epoch microseconds,
+ * strings as a varint length plus UTF-8 bytes, and nullable fields are gated by a presence
+ * bitmask so absent values cost nothing.
+ * <p>
+ * Where headers are unavailable, {@link #encodeFramed} prefixes the payload with a zero byte and
+ * the two-byte schema id instead. No JSON document starts with a zero byte, so framed payloads
+ * are told apart from legacy JSON ones.
+ * <p>
+ * Compatibility rules, which every schema change must follow:
+ * <ul>
+ *   <li>New fields are only ever appended after the existing ones, with a bumped version.</li>
+ *   <li>Readers ignore bytes past the fields they know (old consumers read new events).</li>
+ *   <li>Readers read each appended field only when the payload's version has it and default it
+ *       otherwise (new consumers read old events).</li>
+ *   <li>Fields for the elements of a list are appended as a further list after everything
+ *       else, never inside the existing elements, which old readers could not skip.</li>
+ *   <li>Fields are never removed, reordered or retyped; retire a field by writing its default.
+ *       Anything else is a new schema id.</li>
+ * </ul>
+ */
+public final class DomainEventCodec {
+
+    public static final String SCHEMA_HEADER = "schema-id";
+
+    static final int FRAME_MAGIC = 0;
+
+    static final int DOCUMENT_UPLOADED_SCHEMA = 1;
+    static final int ENTITY_CHANGE_BATCH_SCHEMA = 2;
+
+    private static final int DOCUMENT_UPLOADED_VERSION = 1;
+    private static final int HAS_PATIENT_ID = 1;
+    private static final int HAS_STORAGE_URL = 1 << 1;
+    private static final int ENTITY_CHANGE_BATCH_VERSION = 1;
+
+    private DomainEventCodec() {
+    }
+
+    public static int schemaIdOf(DomainEvent event) {
+        if (event instanceof DocumentUploadedEvent) {
+            return DOCUMENT_UPLOADED_SCHEMA;
+        }
+        if (event instanceof EntityChangeBatch) {
+            return ENTITY_CHANGE_BATCH_SCHEMA;
+        }
+        throw new IllegalArgumentException("No schema registered for " + event.getClass().getName());
+    }
+
+    public static byte[] encode(DomainEvent event) {
+        Writer out = new Writer(64);
+        if (event instanceof DocumentUploadedEvent uploaded) {
+            encodeDocumentUploaded(uploaded, out);
+        } else if (event instanceof EntityChangeBatch batch) {
+            encodeEntityChangeBatch(batch, out);
+        } else {
+            throw new IllegalArgumentException("No schema registered for " + event.getClass().getName());
+        }
+        return out.toByteArray();
+    }
+
+    /** The schema id followed by the payload, for transports that cannot carry the header. */
+    public static byte[] encodeFramed(DomainEvent event) {
+        byte[] payload = encode(event);
+        int schemaId = schemaIdOf(event);
+        byte[] framed = new byte[payload.length + 3];
+        framed[0] = FRAME_MAGIC;
+        framed[1] = (byte) (schemaId >>> 8);
+        framed[2] = (byte) schemaId;
+        System.arraycopy(payload, 0, framed, 3, payload.length);
+        return framed;
+    }
+
+    public static boolean isFramed(byte[] data) {
+        return data.length >= 3 && data[0] == FRAME_MAGIC;
+    }
+
+    public static DomainEvent decodeFramed(byte[] framed) {
+        return decode(((framed[1] & 0xFF) << 8) | (framed[2] & 0xFF), new Reader(framed, 3));
+    }
+
+    public static DomainEvent decode(int schemaId, byte[] payload) {
+        return decode(schemaId, new Reader(payload, 0));
+    }
+
+    private static DomainEvent decode(int schemaId, Reader in) {
+        int version = in.readByte();
+        if (version < 1) {
+            throw new IllegalArgumentException("Invalid version " + version + " for event schema id " + schemaId);
+        }
+        return switch (schemaId) {
+            case DOCUMENT_UPLOADED_SCHEMA -> decodeDocumentUploaded(version, in);
+            case ENTITY_CHANGE_BATCH_SCHEMA -> decodeEntityChangeBatch(version, in);
+            default -> throw new IllegalArgumentException("Unknown event schema id " + schemaId);
+        };
+    }
+
+    public static byte[] schemaHeader(int schemaId) {
+        return new byte[] { (byte) (schemaId >>> 8), (byte) schemaId };
+    }
+
+    public static int parseSchemaHeader(byte[] header) {
+        return ((header[0] & 0xFF) << 8) | (header[1] & 0xFF);
+    }
+
+    private static void encodeDocumentUploaded(DocumentUploadedEvent event, Writer out) {
+        out.writeByte(DOCUMENT_UPLOADED_VERSION);
+        int flags = (event.getPatientId() != null ? HAS_PATIENT_ID : 0)
+            | (event.getStorageUrl() != null ? HAS_STORAGE_URL : 0);
+        out.writeByte(flags);
+        out.writeUuid(event.getEventId());
+        out.writeUuid(event.getReportId());
+        if (event.getPatientId() != null) {
+            out.writeUuid(event.getPatientId());
+        }
+        out.writeLong(toEpochMicros(event.getTimestamp()));
+        if (event.getStorageUrl() != null) {
+            out.writeString(event.getStorageUrl());
+        }
+    }
+
+    private static DocumentUploadedEvent decodeDocumentUploaded(int version, Reader in) {
+        // Every field so far is in version 1; fields appended later are read under a version check
+        int flags = in.readByte();
+        UUID eventId = in.readUuid();
+        UUID reportId = in.readUuid();
+        UUID patientId = (flags & HAS_PATIENT_ID) != 0 ? in.readUuid() : null;
+        OffsetDateTime timestamp = fromEpochMicros(in.readLong());
+        String storageUrl = (flags & HAS_STORAGE_URL) != 0 ? in.readString() : null;
+        return new DocumentUploadedEvent(eventId, reportId, patientId, storageUrl, timestamp);
+    }
+
+    private static void encodeEntityChangeBatch(EntityChangeBatch batch, Writer out) {
+        out.writeByte(ENTITY_CHANGE_BATCH_VERSION);
+        out.writeUuid(batch.getEventId());
+        out.writeLong(toEpochMicros(batch.getTimestamp()));
+        out.writeVarint(batch.getChanges().size());
+        for (EntityChange change : batch.getChanges()) {
+            out.writeString(change.entityType());
+            out.writeUuid(change.entityId());
+            out.writeByte(change.operation().ordinal());
+            out.writeLong(change.version());
+            out.writeVarint(change.changedFields().size());
+            for (String field : change.changedFields()) {
+                out.writeString(field);
+            }
+        }
+    }
+
+    private static EntityChangeBatch decodeEntityChangeBatch(int version, Reader in) {
+        // Every field so far is in version 1; fields appended later are read under a version check
+        UUID eventId = in.readUuid();
+        OffsetDateTime timestamp = fromEpochMicros(in.readLong());
+        int count = in.readVarint();
+        List<EntityChange> changes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String entityType = in.readString();
+            UUID entityId = in.readUuid();
+            EntityChange.Operation operation = EntityChange.Operation.values()[in.readByte()];
+            long entityVersion = in.readLong();
+            int fieldCount = in.readVarint();
+            List<String> fields = new ArrayList<>(fieldCount);
+            for (int f = 0; f < fieldCount; f++) {
+                fields.add(in.readString());
+            }
+            changes.add(new EntityChange(entityType, entityId, operation, entityVersion, fields));
+        }
+        return new EntityChangeBatch(eventId, timestamp, changes);
+    }
+
+    static long toEpochMicros(OffsetDateTime timestamp) {
+        Instant instant = timestamp.toInstant();
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    static OffsetDateTime fromEpochMicros(long micros) {
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS).atOffset(ZoneOffset.UTC);
+    }
+
+    static final class Writer {
+
+        private byte[] buffer;
+        private int position;
+
+        Writer(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeUuid(UUID value) {
+            writeLong(value.getMostSignificantBits());
+            writeLong(value.getLeastSignificantBits());
+        }
+
+        void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensure(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+    }
+
+    static final class Reader {
+
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer, int offset) {
+            this.buffer = buffer;
+            this.position = offset;
+        }
+
+        boolean hasRemaining() {
+            return position < buffer.length;
+        }
+
+        int readByte() {
+            return buffer[position++] & 0xFF;
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (buffer[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        UUID readUuid() {
+            return new UUID(readLong(), readLong());
+        }
+
+        int readVarint() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        String readString() {
+            int length = readVarint();
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
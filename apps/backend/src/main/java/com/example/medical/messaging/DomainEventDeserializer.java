@@ -0,0 +1,47 @@
+package com.example.medical.messaging;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Kafka value deserializer for {@link DomainEventCodec} payloads.
+ * <p>
+ * Records without a schema id header carry it framed into the payload, or were written by the
+ * previous JSON producer; the latter are read as {@link DocumentUploadedEvent} JSON so a rolling
+ * upgrade drains the topic cleanly.
+ */
+public class DomainEventDeserializer implements Deserializer<DomainEvent> {
+
+    private final ObjectMapper legacyMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    @Override
+    public DomainEvent deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public DomainEvent deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        Header schema = headers != null ? headers.lastHeader(DomainEventCodec.SCHEMA_HEADER) : null;
+        try {
+            if (schema == null) {
+                if (DomainEventCodec.isFramed(data)) {
+                    return DomainEventCodec.decodeFramed(data);
+                }
+                return legacyMapper.readValue(data, DocumentUploadedEvent.class);
+            }
+            return DomainEventCodec.decode(DomainEventCodec.parseSchemaHeader(schema.value()), data);
+        } catch (IOException | RuntimeException ex) {
+            throw new SerializationException("Could not decode event on topic " + topic, ex);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.medical.messaging;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka value serializer writing {@link DomainEventCodec} payloads with the schema id header, or
+ * with the schema id framed into the payload when the caller passes no headers.
+ */
+public class DomainEventSerializer implements Serializer<DomainEvent> {
+
+    @Override
+    public byte[] serialize(String topic, DomainEvent data) {
+        return data == null ? null : DomainEventCodec.encodeFramed(data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, DomainEvent data) {
+        if (data == null) {
+            return null;
+        }
+        headers.remove(DomainEventCodec.SCHEMA_HEADER);
+        headers.add(DomainEventCodec.SCHEMA_HEADER, DomainEventCodec.schemaHeader(DomainEventCodec.schemaIdOf(data)));
+        return DomainEventCodec.encode(data);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.medical.messaging;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One row-level change. {@code version} is the entity's {@code updated_at} in epoch
+ * microseconds, so a consumer can drop changes older than what it has already applied.
+ * Only the names of changed fields are carried, never their values.
+ */
+public record EntityChange(String entityType, UUID entityId, Operation operation, long version,
+                           List<String> changedFields) {
+
+    /** Encoded by ordinal, so new operations are only ever appended. */
+    public enum Operation {
+        CREATE, UPDATE, DELETE
+    }
+}
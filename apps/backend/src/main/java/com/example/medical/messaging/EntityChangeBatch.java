@@ -0,0 +1,38 @@
+package com.example.medical.messaging;
+
+import com.example.medical.common.UuidV7Generator;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/** The changes committed by one transaction, in the order they were flushed. */
+public class EntityChangeBatch implements DomainEvent {
+
+    private final UUID eventId;
+    private final OffsetDateTime timestamp;
+    private final List<EntityChange> changes;
+
+    public EntityChangeBatch(List<EntityChange> changes) {
+        this(UuidV7Generator.next(), OffsetDateTime.now(), changes);
+    }
+
+    public EntityChangeBatch(UUID eventId, OffsetDateTime timestamp, List<EntityChange> changes) {
+        this.eventId = eventId;
+        this.timestamp = timestamp;
+        this.changes = List.copyOf(changes);
+    }
+
+    @Override
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    @Override
+    public OffsetDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public List<EntityChange> getChanges() {
+        return changes;
+    }
+}
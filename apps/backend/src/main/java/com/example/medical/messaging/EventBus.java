@@ -0,0 +1,20 @@
+package com.example.medical.messaging;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transport for domain events. {@code app.events.bus} selects {@link KafkaEventBus} (the
+ * default) or {@link InProcessEventBus} for single-node installs without a broker; handlers
+ * implement {@link EventSubscriber} and do not depend on which one is active.
+ */
+public interface EventBus {
+
+    String TOPIC_DOCUMENT_UPLOADED = "document-uploaded";
+    String TOPIC_ENTITY_CHANGES = "entity-changes";
+
+    /**
+     * Hands the event to the bus. The returned future completes once the bus has accepted the
+     * event (the broker acknowledged it, or it is queued and journaled), not once it is handled.
+     */
+    CompletableFuture<Void> publish(String topic, String key, DomainEvent event);
+}
@@ -0,0 +1,89 @@
+package com.example.medical.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Skips events that were already handled, such as redeliveries after a rebalance or a crash
+ * between processing and the offset commit.
+ * <p>
+ * Recently handled event ids live in a bounded in-memory window, so the usual redelivery is
+ * rejected without touching the database. Ids that have aged out of the window are looked up
+ * in {@code processed_events}, which keeps them for the retention period. An event is only
+ * recorded once it has been fully processed; a crash mid-processing therefore leads to a
+ * second attempt rather than a lost event.
+ */
+@Component
+public class EventIdempotencyGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventIdempotencyGuard.class);
+
+    private final ProcessedEventRepository repository;
+    private final RecentEventWindow window;
+    private final int retentionDays;
+    private final Counter windowHitCounter;
+    private final Counter storeHitCounter;
+
+    public EventIdempotencyGuard(ProcessedEventRepository repository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.idempotency.window.max-size:100000}") int windowMaxSize,
+                                 @Value("${app.idempotency.window.ttl-ms:3600000}") long windowTtlMs,
+                                 @Value("${app.idempotency.retention-days:7}") int retentionDays) {
+        this.repository = repository;
+        this.window = new RecentEventWindow(windowMaxSize, TimeUnit.MILLISECONDS.toNanos(windowTtlMs));
+        this.retentionDays = retentionDays;
+
+        Gauge.builder("medical.events.dedupe.window.size", window, RecentEventWindow::size)
+            .description("Event ids held in the in-memory dedupe window")
+            .register(meterRegistry);
+        this.windowHitCounter = Counter.builder("medical.events.duplicates")
+            .description("Duplicate events skipped")
+            .tag("source", "window")
+            .register(meterRegistry);
+        this.storeHitCounter = Counter.builder("medical.events.duplicates")
+            .description("Duplicate events skipped")
+            .tag("source", "store")
+            .register(meterRegistry);
+    }
+
+    public boolean isDuplicate(UUID eventId) {
+        if (eventId == null) {
+            return false;
+        }
+        if (window.contains(eventId)) {
+            windowHitCounter.increment();
+            return true;
+        }
+        if (repository.existsById(eventId)) {
+            window.add(eventId);
+            storeHitCounter.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public void markProcessed(UUID eventId) {
+        if (eventId == null) {
+            return;
+        }
+        repository.insertIfAbsent(eventId);
+        window.add(eventId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.prune-interval-ms:3600000}")
+    public void prune() {
+        int pruned = repository.deleteProcessedBefore(OffsetDateTime.now().minusDays(retentionDays));
+        if (pruned > 0) {
+            logger.debug("Pruned {} processed event ids older than {} days", pruned, retentionDays);
+        }
+    }
+}
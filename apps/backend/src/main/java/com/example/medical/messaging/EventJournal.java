@@ -0,0 +1,163 @@
+package com.example.medical.messaging;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Append-only log of events accepted by the {@link InProcessEventBus}, so events queued in
+ * memory survive a restart. Each accepted event is written as a published frame and later
+ * closed by a completed frame; on startup the events without one are replayed and the file
+ * is rewritten to hold only them.
+ */
+final class EventJournal implements Closeable {
+
+    private static final byte PUBLISHED = 'P';
+    private static final byte COMPLETED = 'C';
+    private static final long TRUNCATE_THRESHOLD_BYTES = 64L * 1024 * 1024;
+
+    private final Path path;
+    private final boolean fsync;
+    private FileChannel channel;
+    private int outstanding;
+
+    EventJournal(Path path, boolean fsync) {
+        this.path = path;
+        this.fsync = fsync;
+    }
+
+    record Entry(String topic, String key, DomainEvent event) { }
+
+    /** Opens the journal and returns the events that were accepted but never completed. */
+    synchronized List<Entry> recover() throws IOException {
+        Map<UUID, Entry> pending = new LinkedHashMap<>();
+        if (Files.exists(path)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                readFrames(in, pending);
+            }
+        }
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Entry entry : pending.values()) {
+                out.write(ByteBuffer.wrap(publishedFrame(entry)));
+            }
+            out.force(true);
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        outstanding = pending.size();
+        return new ArrayList<>(pending.values());
+    }
+
+    synchronized void published(String topic, String key, DomainEvent event) {
+        write(publishedFrame(new Entry(topic, key, event)));
+        outstanding++;
+    }
+
+    synchronized void completed(UUID eventId) {
+        ByteBuffer frame = ByteBuffer.allocate(1 + 16);
+        frame.put(COMPLETED).putLong(eventId.getMostSignificantBits()).putLong(eventId.getLeastSignificantBits());
+        write(frame.array());
+        outstanding--;
+        try {
+            // Nothing left to replay, so the whole file can go instead of waiting for a restart
+            if (outstanding == 0 && channel.size() > TRUNCATE_THRESHOLD_BYTES) {
+                channel.truncate(0);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void write(byte[] frame) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(frame);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static byte[] publishedFrame(Entry entry) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            byte[] payload = DomainEventCodec.encode(entry.event());
+            out.writeByte(PUBLISHED);
+            out.writeUTF(entry.topic());
+            out.writeBoolean(entry.key() != null);
+            if (entry.key() != null) {
+                out.writeUTF(entry.key());
+            }
+            out.writeShort(DomainEventCodec.schemaIdOf(entry.event()));
+            out.writeInt(payload.length);
+            out.write(payload);
+            return bytes.toByteArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void readFrames(DataInputStream in, Map<UUID, Entry> pending) throws IOException {
+        try {
+            while (true) {
+                int type = in.read();
+                if (type == -1) {
+                    return;
+                }
+                if (type == PUBLISHED) {
+                    String topic = in.readUTF();
+                    String key = in.readBoolean() ? in.readUTF() : null;
+                    int schemaId = in.readUnsignedShort();
+                    byte[] payload = readFully(in, in.readInt());
+                    DomainEvent event = DomainEventCodec.decode(schemaId, payload);
+                    pending.put(event.getEventId(), new Entry(topic, key, event));
+                } else if (type == COMPLETED) {
+                    pending.remove(new UUID(in.readLong(), in.readLong()));
+                } else {
+                    throw new IOException("Corrupt event journal frame type " + type);
+                }
+            }
+        } catch (EOFException ex) {
+            // A frame cut short by a crash; everything before it is intact
+        }
+    }
+
+    private static byte[] readFully(InputStream in, int length) throws IOException {
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.medical.messaging;
+
+/** Handles the events published to one topic, whichever {@link EventBus} carries them. */
+public interface EventSubscriber<E extends DomainEvent> {
+
+    String topic();
+
+    Class<E> eventType();
+
+    /** Throws to have the event retried after the configured backoff. */
+    void handle(E event);
+
+    /** Called once the event has failed every retry. */
+    default void onRetriesExhausted(E event, Throwable failure) {
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.medical.messaging;
+
+import com.example.medical.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Event bus for single-node installs that run without Kafka.
+ * <p>
+ * Events are sharded by key onto lock-free {@link RingBuffer}s, each drained by one worker
+ * thread, so events with the same key are handled in order and publishers never take a lock.
+ * A full shard rejects the event with {@link ServiceOverloadedException}; the outbox relay then
+ * keeps it and tries again. Failed handlers are retried after the configured delays, and with
+ * a journal path configured, accepted events survive a restart.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.bus", havingValue = "in-process")
+public class InProcessEventBus implements EventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(InProcessEventBus.class);
+    private static final int SPINS_BEFORE_PARK = 200;
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Map<String, List<EventSubscriber<?>>> subscribers;
+    private final Shard[] shards;
+    private final List<Long> retryDelaysMs;
+    private final EventJournal journal;
+    private final ScheduledExecutorService retryScheduler =
+        Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("event-bus-retry").daemon().factory());
+    private final Timer dispatchTimer;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+    private volatile boolean running = true;
+
+    public InProcessEventBus(List<EventSubscriber<?>> subscribers,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.events.in-process.workers:4}") int workers,
+                             @Value("${app.events.in-process.ring-capacity:8192}") int ringCapacity,
+                             @Value("${app.events.in-process.retry-delays-ms:5000,30000,300000}") List<Long> retryDelaysMs,
+                             @Value("${app.events.in-process.journal.path:}") String journalPath,
+                             @Value("${app.events.in-process.journal.fsync:false}") boolean journalFsync) {
+        this.subscribers = subscribers.stream().collect(Collectors.groupingBy(EventSubscriber::topic));
+        this.retryDelaysMs = retryDelaysMs;
+        this.journal = journalPath.isBlank() ? null : new EventJournal(Path.of(journalPath), journalFsync);
+        this.shards = new Shard[workers];
+        for (int i = 0; i < workers; i++) {
+            shards[i] = new Shard(i, ringCapacity);
+        }
+
+        Gauge.builder("medical.events.bus.queued", this, InProcessEventBus::queued)
+            .description("Events accepted by the in-process bus and not yet handled")
+            .register(meterRegistry);
+        this.dispatchTimer = Timer.builder("medical.events.bus.dispatch.latency")
+            .description("Time from publish to a worker picking the event up")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("medical.events.bus.rejected")
+            .description("Events rejected because their shard was full")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("medical.events.bus.failed")
+            .description("Events whose handler failed every retry")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        for (Shard shard : shards) {
+            shard.worker.start();
+        }
+        if (journal != null) {
+            List<EventJournal.Entry> recovered = journal.recover();
+            for (EventJournal.Entry entry : recovered) {
+                Envelope envelope = new Envelope(entry.topic(), entry.key(), entry.event(),
+                    subscribersOf(entry.topic(), entry.event()), 0);
+                if (!enqueue(envelope)) {
+                    scheduleRetry(envelope, 1000);
+                }
+            }
+            if (!recovered.isEmpty()) {
+                logger.info("Replayed {} events from the event journal", recovered.size());
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> publish(String topic, String key, DomainEvent event) {
+        Envelope envelope = new Envelope(topic, key, event, subscribersOf(topic, event), 0);
+        if (journal != null && event.getEventId() != null) {
+            journal.published(topic, key, event);
+        }
+        if (!enqueue(envelope)) {
+            rejectedCounter.increment();
+            complete(envelope);
+            return CompletableFuture.failedFuture(new ServiceOverloadedException("In-process event bus full", 1));
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private boolean enqueue(Envelope envelope) {
+        Shard shard = shards[Math.floorMod(envelope.key() != null ? envelope.key().hashCode() : 0, shards.length)];
+        if (!shard.ring.offer(envelope)) {
+            return false;
+        }
+        if (shard.parked) {
+            LockSupport.unpark(shard.worker);
+        }
+        return true;
+    }
+
+    private List<EventSubscriber<?>> subscribersOf(String topic, DomainEvent event) {
+        return subscribers.getOrDefault(topic, List.of()).stream()
+            .filter(subscriber -> subscriber.eventType().isInstance(event))
+            .toList();
+    }
+
+    private void handle(Envelope envelope) {
+        if (envelope.attempt() == 0) {
+            dispatchTimer.record(System.nanoTime() - envelope.publishedAt(), TimeUnit.NANOSECONDS);
+        }
+        List<EventSubscriber<?>> failed = new ArrayList<>();
+        List<EventSubscriber<?>> shed = new ArrayList<>();
+        long retryAfterSeconds = 1;
+        Throwable lastFailure = null;
+        for (EventSubscriber<?> subscriber : envelope.subscribers()) {
+            try {
+                deliver(subscriber, envelope.event());
+            } catch (ServiceOverloadedException ex) {
+                // Turned away by a limiter before doing any work; not a failed attempt
+                shed.add(subscriber);
+                retryAfterSeconds = Math.max(retryAfterSeconds, ex.getRetryAfterSeconds());
+            } catch (RuntimeException ex) {
+                failed.add(subscriber);
+                lastFailure = ex;
+            }
+        }
+        boolean retrying = !failed.isEmpty() && envelope.attempt() < retryDelaysMs.size();
+        // Shed and failed subscribers may go on as separate envelopes; the event completes once
+        // the last of them finishes
+        int continuing = (shed.isEmpty() ? 0 : 1) + (retrying ? 1 : 0);
+        if (continuing > 1) {
+            envelope.branches().incrementAndGet();
+        }
+        if (!shed.isEmpty()) {
+            scheduleRetry(envelope.redeliver(shed), TimeUnit.SECONDS.toMillis(retryAfterSeconds));
+        }
+        if (failed.isEmpty()) {
+            if (continuing == 0) {
+                finish(envelope);
+            }
+        } else if (retrying) {
+            Envelope retry = envelope.retry(failed);
+            logger.warn("Handling {} event {} failed on attempt {}; retrying in {} ms: {}", envelope.topic(),
+                envelope.event().getEventId(), envelope.attempt() + 1, retryDelaysMs.get(envelope.attempt()),
+                lastFailure.toString());
+            scheduleRetry(retry, retryDelaysMs.get(envelope.attempt()));
+        } else {
+            failedCounter.increment();
+            logger.error("Giving up on {} event {} after {} attempts", envelope.topic(),
+                envelope.event().getEventId(), envelope.attempt() + 1, lastFailure);
+            for (EventSubscriber<?> subscriber : failed) {
+                exhausted(subscriber, envelope.event(), lastFailure);
+            }
+            if (continuing == 0) {
+                finish(envelope);
+            }
+        }
+    }
+
+    /** Ends one branch of the event's delivery, completing the event when it was the last. */
+    private void finish(Envelope envelope) {
+        if (envelope.branches().decrementAndGet() == 0) {
+            complete(envelope);
+        }
+    }
+
+    private void scheduleRetry(Envelope retry, long delayMs) {
+        retryScheduler.schedule(() -> {
+            if (!enqueue(retry)) {
+                // Shard is full right now; keep the event rather than drop it
+                scheduleRetry(retry, 1000);
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void complete(Envelope envelope) {
+        if (journal != null && envelope.event().getEventId() != null) {
+            journal.completed(envelope.event().getEventId());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends DomainEvent> void deliver(EventSubscriber<E> subscriber, DomainEvent event) {
+        subscriber.handle((E) event);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends DomainEvent> void exhausted(EventSubscriber<E> subscriber, DomainEvent event, Throwable failure) {
+        try {
+            subscriber.onRetriesExhausted((E) event, failure);
+        } catch (RuntimeException ex) {
+            logger.error("Retry-exhausted handler failed for event {}", event.getEventId(), ex);
+        }
+    }
+
+    private int queued() {
+        int total = 0;
+        for (Shard shard : shards) {
+            total += shard.ring.size();
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        running = false;
+        retryScheduler.shutdownNow();
+        for (Shard shard : shards) {
+            LockSupport.unpark(shard.worker);
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /** {@code branches} counts the envelopes of this event still being delivered or waiting to be. */
+    private record Envelope(String topic, String key, DomainEvent event, List<EventSubscriber<?>> subscribers,
+                            int attempt, long publishedAt, AtomicInteger branches) {
+
+        Envelope(String topic, String key, DomainEvent event, List<EventSubscriber<?>> subscribers, int attempt) {
+            this(topic, key, event, subscribers, attempt, System.nanoTime(), new AtomicInteger(1));
+        }
+
+        Envelope retry(List<EventSubscriber<?>> failed) {
+            return new Envelope(topic, key, event, failed, attempt + 1, publishedAt, branches);
+        }
+
+        /** Same attempt again, for subscribers that were shed rather than failed. */
+        Envelope redeliver(List<EventSubscriber<?>> shed) {
+            return new Envelope(topic, key, event, shed, attempt, publishedAt, branches);
+        }
+    }
+
+    private final class Shard implements Runnable {
+
+        private final RingBuffer<Envelope> ring;
+        private final Thread worker;
+        private volatile boolean parked;
+
+        Shard(int index, int capacity) {
+            this.ring = new RingBuffer<>(capacity);
+            this.worker = Thread.ofPlatform().name("event-bus-" + index).daemon().unstarted(this);
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (running || !ring.isEmpty()) {
+                Envelope envelope = ring.poll();
+                if (envelope != null) {
+                    idle = 0;
+                    try {
+                        handle(envelope);
+                    } catch (RuntimeException ex) {
+                        logger.error("Event bus worker failed on {} event", envelope.topic(), ex);
+                    }
+                } else if (++idle < SPINS_BEFORE_PARK) {
+                    Thread.onSpinWait();
+                } else {
+                    parked = true;
+                    // Re-check after announcing the park so a concurrent publish cannot be missed
+                    if (ring.isEmpty() && running) {
+                        LockSupport.parkNanos(MAX_PARK_NANOS);
+                    }
+                    parked = false;
+                }
+            }
+        }
+    }
+}
@@ -1,20 +1,238 @@
 package com.example.medical.messaging;
 
+import com.example.medical.exception.ServiceOverloadedException;
+import com.example.medical.observability.MetricsService;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
 @Service
+@ConditionalOnProperty(name = "app.events.bus", havingValue = "kafka", matchIfMissing = true)
 public class KafkaConsumerService {
 
     private static final Logger logger = LoggerFactory.getLogger(KafkaConsumerService.class);
 
-    @KafkaListener(topics = "document-uploaded", groupId = "medical-group", containerFactory = "kafkaListenerContainerFactory")
-    public void consumeDocumentUploadedEvent(DocumentUploadedEvent event) {
-        logger.info("Received document-uploaded event: reportId={}, patientId={}, storageUrl={}",
-            event.getReportId(), event.getPatientId(), event.getStorageUrl());
-        // Trigger AI analysis via HTTP call to FastAPI
-        // e.g., call AIService.analyzeReport(event.getReportId())
+    private final DocumentAnalysisProcessor processor;
+    private final DocumentRetryRouter retryRouter;
+    private final KeyOrderedDispatcher keyOrderedDispatcher;
+    private final MetricsService metricsService;
+    private final List<EventSubscriber<?>> entityChangeSubscribers;
+    private final ExecutorService analysisExecutor;
+
+    public KafkaConsumerService(DocumentAnalysisProcessor processor,
+                                DocumentRetryRouter retryRouter,
+                                KeyOrderedDispatcher keyOrderedDispatcher,
+                                MetricsService metricsService,
+                                List<EventSubscriber<?>> subscribers,
+                                @Value("${app.kafka.analysis.parallelism:8}") int parallelism) {
+        this.processor = processor;
+        this.retryRouter = retryRouter;
+        this.keyOrderedDispatcher = keyOrderedDispatcher;
+        this.metricsService = metricsService;
+        this.entityChangeSubscribers = subscribers.stream()
+            .filter(subscriber -> EventBus.TOPIC_ENTITY_CHANGES.equals(subscriber.topic()))
+            .toList();
+        this.analysisExecutor = Executors.newFixedThreadPool(parallelism);
+    }
+
+    /**
+     * Analyzes a polled batch in parallel and commits its offsets only once every report in
+     * the batch has either been processed or handed to a retry topic, so a crash mid-batch
+     * redelivers the unfinished work and a failing report never stalls the partition. Reports
+     * the ai-service limiter turned away are not failures: the batch is committed up to the
+     * first of them and the rest is redelivered after the limiter's retry-after.
+     */
+    @KafkaListener(id = "document-uploaded", topics = KafkaProducerService.TOPIC_DOCUMENT_UPLOADED,
+        groupId = "medical-group", containerFactory = "kafkaListenerContainerFactory",
+        autoStartup = "#{'${app.kafka.consumer.mode:batch}' == 'batch'}")
+    public void consumeDocumentUploadedEvents(List<ConsumerRecord<String, DocumentUploadedEvent>> records,
+                                              Acknowledgment acknowledgment) {
+        logger.debug("Received {} document-uploaded events", records.size());
+        records.forEach(this::recordConsumeLag);
+        acknowledgeAdmitted(records, dispatch(records).join(), acknowledgment);
+    }
+
+    /**
+     * Alternative to {@link #consumeDocumentUploadedEvents} selected with
+     * {@code app.kafka.consumer.mode=key-ordered}: records are handed to
+     * {@link KeyOrderedDispatcher} without waiting for the batch, and offsets are committed as
+     * their contiguous prefix completes. The partitions are paused while the ai-service limiter
+     * has no room, instead of blocking this thread past {@code max.poll.interval.ms}.
+     */
+    @KafkaListener(id = "document-uploaded-key-ordered", topics = KafkaProducerService.TOPIC_DOCUMENT_UPLOADED,
+        groupId = "medical-group", containerFactory = "keyOrderedListenerContainerFactory",
+        autoStartup = "#{'${app.kafka.consumer.mode:batch}' == 'key-ordered'}")
+    public void consumeDocumentUploadedEventsByKey(List<ConsumerRecord<String, DocumentUploadedEvent>> records,
+                                                   Consumer<?, ?> consumer) {
+        logger.debug("Received {} document-uploaded events", records.size());
+        keyOrderedDispatcher.commit(consumer);
+        for (ConsumerRecord<String, DocumentUploadedEvent> record : records) {
+            recordConsumeLag(record);
+            // Already on a dispatcher worker thread, so analyze inline. analyze() forwards failures
+            // itself; the fallback only runs if that forwarding failed too
+            keyOrderedDispatcher.dispatch(record, this::analyzeUntilAdmitted, retryRouter::route);
+        }
+        keyOrderedDispatcher.commit(consumer);
+        keyOrderedDispatcher.throttle(consumer);
+    }
+
+    /**
+     * Re-attempts records from the retry tiers once their backoff has elapsed. The first record
+     * that is not yet due ends the batch: everything before it is committed and the container
+     * re-polls from that record after sleeping until it is due.
+     */
+    @KafkaListener(id = "document-retry-0", topics = DocumentRetryRouter.RETRY_TOPIC_PREFIX + "0",
+        groupId = "medical-group-retry", containerFactory = "retryListenerContainerFactory")
+    @KafkaListener(id = "document-retry-1", topics = DocumentRetryRouter.RETRY_TOPIC_PREFIX + "1",
+        groupId = "medical-group-retry", containerFactory = "retryListenerContainerFactory")
+    @KafkaListener(id = "document-retry-2", topics = DocumentRetryRouter.RETRY_TOPIC_PREFIX + "2",
+        groupId = "medical-group-retry", containerFactory = "retryListenerContainerFactory")
+    public void consumeRetries(List<ConsumerRecord<String, DocumentUploadedEvent>> records,
+                               Acknowledgment acknowledgment) {
+        long now = System.currentTimeMillis();
+        int due = 0;
+        while (due < records.size() && retryRouter.dueAt(records.get(due)) <= now) {
+            due++;
+        }
+        List<Outcome> outcomes = dispatch(records.subList(0, due)).join();
+        int shed = firstShed(outcomes);
+        if (shed >= 0) {
+            acknowledgment.nack(shed, outcomes.get(shed).retryAfter());
+        } else if (due == records.size()) {
+            acknowledgment.acknowledge();
+        } else {
+            acknowledgment.nack(due, Duration.ofMillis(retryRouter.dueAt(records.get(due)) - now));
+        }
+    }
+
+    /**
+     * Entity changes feed node-local state such as caches, so every node reads the whole topic
+     * under its own consumer group. The group is named after {@code app.node-id}, so a restarted
+     * node rejoins its group and resumes where it left off instead of leaving an orphaned group
+     * behind; a node's very first start reads from the latest offset.
+     */
+    @KafkaListener(id = "entity-changes", topics = EventBus.TOPIC_ENTITY_CHANGES,
+        groupId = "medical-node-#{'${app.node-id:}' ?: T(java.net.InetAddress).getLocalHost().getHostName()}",
+        containerFactory = "broadcastListenerContainerFactory")
+    public void consumeEntityChanges(List<ConsumerRecord<String, DomainEvent>> records) {
+        for (ConsumerRecord<String, DomainEvent> record : records) {
+            if (!(record.value() instanceof EntityChangeBatch batch)) {
+                continue;
+            }
+            for (EventSubscriber<?> subscriber : entityChangeSubscribers) {
+                try {
+                    deliver(subscriber, batch);
+                } catch (RuntimeException ex) {
+                    logger.warn("Entity change subscriber {} failed on batch {}", subscriber.getClass().getSimpleName(),
+                        batch.getEventId(), ex);
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends DomainEvent> void deliver(EventSubscriber<E> subscriber, DomainEvent event) {
+        if (subscriber.eventType().isInstance(event)) {
+            subscriber.handle((E) event);
+        }
+    }
+
+    /** Commits the batch, or only up to its first shed record, which is redelivered after a pause. */
+    private static void acknowledgeAdmitted(List<?> records, List<Outcome> outcomes, Acknowledgment acknowledgment) {
+        int shed = firstShed(outcomes);
+        if (shed < 0) {
+            acknowledgment.acknowledge();
+        } else {
+            logger.debug("ai-service limiter shed {} of {} records; redelivering from index {}",
+                outcomes.stream().filter(Outcome::shed).count(), records.size(), shed);
+            acknowledgment.nack(shed, outcomes.get(shed).retryAfter());
+        }
+    }
+
+    private static int firstShed(List<Outcome> outcomes) {
+        for (int i = 0; i < outcomes.size(); i++) {
+            if (outcomes.get(i).shed()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private CompletableFuture<List<Outcome>> dispatch(List<ConsumerRecord<String, DocumentUploadedEvent>> records) {
+        List<CompletableFuture<Outcome>> tasks = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, DocumentUploadedEvent> record : records) {
+            tasks.add(analyze(record, analysisExecutor));
+        }
+        return CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new))
+            .thenApply(ignored -> tasks.stream().map(CompletableFuture::join).toList());
+    }
+
+    /** Key-ordered work holds its key until the report gets past the limiter, waiting out each retry-after. */
+    private CompletableFuture<Void> analyzeUntilAdmitted(ConsumerRecord<String, DocumentUploadedEvent> record) {
+        return analyze(record, Runnable::run).thenCompose(outcome -> {
+            if (!outcome.shed()) {
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+            Executor delayed = CompletableFuture.delayedExecutor(outcome.retryAfter().toMillis(), TimeUnit.MILLISECONDS);
+            return CompletableFuture.supplyAsync(() -> record, delayed).thenCompose(this::analyzeUntilAdmitted);
+        });
+    }
+
+    /**
+     * Completes once the record is processed, safely forwarded to a retry or dead-letter topic,
+     * or shed by the ai-service limiter. Shed records used no retry attempt and are not failed.
+     */
+    private CompletableFuture<Outcome> analyze(ConsumerRecord<String, DocumentUploadedEvent> record, Executor executor) {
+        if (record.value() == null) {
+            return retryRouter.route(record, null).thenApply(ignored -> Outcome.DONE);
+        }
+        return CompletableFuture.runAsync(() -> processor.process(record.value()), executor)
+            .<CompletableFuture<Outcome>>handle((ignored, failure) -> {
+                if (failure == null) {
+                    return CompletableFuture.completedFuture(Outcome.DONE);
+                }
+                ServiceOverloadedException overloaded = DocumentAnalysisProcessor.overload(failure);
+                if (overloaded != null) {
+                    return CompletableFuture.completedFuture(
+                        new Outcome(true, Duration.ofSeconds(Math.max(1, overloaded.getRetryAfterSeconds()))));
+                }
+                if (!retryRouter.hasRetriesLeft(record)) {
+                    processor.markFailed(record.value());
+                }
+                return retryRouter.route(record, failure.getCause() != null ? failure.getCause() : failure)
+                    .thenApply(routed -> Outcome.DONE);
+            })
+            .thenCompose(Function.identity());
+    }
+
+    private void recordConsumeLag(ConsumerRecord<String, DocumentUploadedEvent> record) {
+        if (record.value() != null) {
+            metricsService.recordDocumentConsumeLag(DocumentAnalysisProcessor.sinceUpload(record.value()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        analysisExecutor.shutdown();
+    }
+
+    private record Outcome(boolean shed, Duration retryAfter) {
+        static final Outcome DONE = new Outcome(false, Duration.ZERO);
     }
 }
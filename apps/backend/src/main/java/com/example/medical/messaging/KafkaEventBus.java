@@ -0,0 +1,22 @@
+package com.example.medical.messaging;
+
+import java.util.concurrent.CompletableFuture;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/** Publishes through {@link KafkaProducerService}; {@link KafkaConsumerService} delivers to subscribers. */
+@Component
+@ConditionalOnProperty(name = "app.events.bus", havingValue = "kafka", matchIfMissing = true)
+public class KafkaEventBus implements EventBus {
+
+    private final KafkaProducerService producerService;
+
+    public KafkaEventBus(KafkaProducerService producerService) {
+        this.producerService = producerService;
+    }
+
+    @Override
+    public CompletableFuture<Void> publish(String topic, String key, DomainEvent event) {
+        return producerService.publish(topic, key, event).thenAccept(result -> { });
+    }
+}
@@ -1,28 +1,118 @@
 package com.example.medical.messaging;
 
+import com.example.medical.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Sends events with a bounded window of unacknowledged records. When the window is full,
+ * callers wait up to the backpressure timeout for a slot instead of piling more records
+ * into the client buffer, and every send reports its delivery latency or failure. A send the
+ * client could not take within {@code max-block-ms}, because metadata is missing or its buffer
+ * is full, fails with {@link ServiceOverloadedException} like a full window does.
+ */
 @Service
+@ConditionalOnProperty(name = "app.events.bus", havingValue = "kafka", matchIfMissing = true)
 public class KafkaProducerService {
 
     private static final Logger logger = LoggerFactory.getLogger(KafkaProducerService.class);
-    private static final String TOPIC_DOCUMENT_UPLOADED = "document-uploaded";
+    static final String TOPIC_DOCUMENT_UPLOADED = EventBus.TOPIC_DOCUMENT_UPLOADED;
 
-    private final KafkaTemplate<String, DocumentUploadedEvent> kafkaTemplate;
+    private final KafkaTemplate<String, DomainEvent> kafkaTemplate;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final long backpressureTimeoutMs;
+    private final Timer deliveryTimer;
+    private final Counter failureCounter;
+    private final Counter backpressureCounter;
 
-    public KafkaProducerService(KafkaTemplate<String, DocumentUploadedEvent> kafkaTemplate) {
+    public KafkaProducerService(KafkaTemplate<String, DomainEvent> kafkaTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.kafka.producer.max-in-flight:1000}") int maxInFlight,
+                                @Value("${app.kafka.producer.backpressure-timeout-ms:5000}") long backpressureTimeoutMs) {
         this.kafkaTemplate = kafkaTemplate;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.backpressureTimeoutMs = backpressureTimeoutMs;
+
+        Gauge.builder("medical.kafka.producer.inflight", this, p -> p.maxInFlight - p.inFlight.availablePermits())
+            .description("Records sent but not yet acknowledged by the broker")
+            .register(meterRegistry);
+        this.deliveryTimer = Timer.builder("medical.kafka.producer.delivery.latency")
+            .description("Time from send to broker acknowledgment")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.failureCounter = Counter.builder("medical.kafka.producer.failed")
+            .description("Records the broker did not acknowledge")
+            .register(meterRegistry);
+        this.backpressureCounter = Counter.builder("medical.kafka.producer.backpressure.rejected")
+            .description("Sends rejected because the in-flight window stayed full")
+            .register(meterRegistry);
+    }
+
+    public CompletableFuture<SendResult<String, DomainEvent>> publish(String topic, String key, DomainEvent event) {
+        if (!acquire()) {
+            backpressureCounter.increment();
+            return CompletableFuture.failedFuture(overloaded("Kafka producer window full"));
+        }
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, DomainEvent>> future;
+        try {
+            future = kafkaTemplate.send(topic, key, event);
+        } catch (RuntimeException ex) {
+            inFlight.release();
+            failureCounter.increment();
+            return CompletableFuture.failedFuture(blockedTooLong(ex) ? overloaded("Kafka producer unavailable") : ex);
+        }
+        CompletableFuture<SendResult<String, DomainEvent>> published = new CompletableFuture<>();
+        future.whenComplete((result, ex) -> {
+            inFlight.release();
+            if (ex != null) {
+                failureCounter.increment();
+                logger.error("Failed to publish {} event for key: {}", topic, key, ex);
+                published.completeExceptionally(blockedTooLong(ex) ? overloaded("Kafka producer unavailable") : ex);
+            } else {
+                deliveryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                logger.debug("Published {} event for key: {}", topic, key);
+                published.complete(result);
+            }
+        });
+        return published;
+    }
+
+    /** Whether the client gave up waiting for metadata, buffer space or the broker's acknowledgment. */
+    private static boolean blockedTooLong(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ServiceOverloadedException overloaded(String message) {
+        return new ServiceOverloadedException(message, Math.max(1, TimeUnit.MILLISECONDS.toSeconds(backpressureTimeoutMs)));
     }
 
-    public void publishDocumentUploaded(DocumentUploadedEvent event) {
+    private boolean acquire() {
         try {
-            kafkaTemplate.send(TOPIC_DOCUMENT_UPLOADED, event.getReportId().toString(), event);
-            logger.info("Published document-uploaded event for report: {}", event.getReportId());
-        } catch (Exception ex) {
-            logger.error("Failed to publish document-uploaded event", ex);
+            return inFlight.tryAcquire(backpressureTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
         }
     }
 }
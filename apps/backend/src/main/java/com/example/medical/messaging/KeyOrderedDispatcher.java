@@ -0,0 +1,228 @@
+package com.example.medical.messaging;
+
+import com.example.medical.ai.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Processes records from a partition concurrently while keeping records with the same key in
+ * order, so throughput is bounded by the worker count rather than the partition count. The
+ * number of records in flight follows the ai-service {@link AdaptiveConcurrencyLimiter}'s
+ * current limit: at the limit, the consumer's partitions are paused rather than the consumer
+ * thread blocked, so polling (and with it group membership) continues.
+ * <p>
+ * Each key has a chain of pending work; a record starts on a virtual thread once the previous
+ * record with its key has finished. Per partition, the offsets still in progress are tracked
+ * and only the contiguous completed prefix is committed, so a crash redelivers exactly the
+ * unfinished records (and possibly some finished ones, which the idempotency guard skips).
+ * <p>
+ * All methods taking a {@link Consumer} must be called on that consumer's thread.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.bus", havingValue = "kafka", matchIfMissing = true)
+public class KeyOrderedDispatcher implements ConsumerAwareRebalanceListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyOrderedDispatcher.class);
+    static final long REDISPATCH_DELAY_MS = 1000;
+
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Object, CompletableFuture<Void>> keyChains = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, PartitionOffsets> partitions = new ConcurrentHashMap<>();
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter redispatchedCounter;
+
+    public KeyOrderedDispatcher(AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+
+        Gauge.builder("medical.kafka.consumer.key-ordered.inflight", inFlight, AtomicInteger::get)
+            .description("Records dispatched to key-ordered workers and not yet finished")
+            .register(meterRegistry);
+        this.redispatchedCounter = Counter.builder("medical.kafka.consumer.key-ordered.redispatched")
+            .description("Records dispatched again because their work and its fallback both failed")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queues {@code work} for the record behind any earlier work for the same key. If the work
+     * fails, {@code fallback} is given the record and the failure (typically to forward it to a
+     * retry or dead-letter topic); once either succeeds the offset counts as completed. When
+     * both fail the record is dispatched again after {@link #REDISPATCH_DELAY_MS}, still ahead
+     * of later records with its key, so a partition's commits never stall on it for good.
+     * Never blocks; call {@link #throttle} after dispatching a poll.
+     */
+    public <V> void dispatch(ConsumerRecord<String, V> record,
+                             Function<ConsumerRecord<String, V>, CompletableFuture<Void>> work,
+                             BiFunction<ConsumerRecord<String, V>, Throwable, CompletableFuture<Void>> fallback) {
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        PartitionOffsets offsets = partitions.computeIfAbsent(partition, tp -> new PartitionOffsets());
+        offsets.started(record.offset());
+        inFlight.incrementAndGet();
+
+        // Records without a key have no ordering requirement and get a chain of their own
+        Object key = record.key() != null ? record.key() : partition + "@" + record.offset();
+        Supplier<CompletableFuture<Void>> attempt = () -> CompletableFuture.<Void>completedFuture(null)
+            .<Void>thenCompose(ignored -> work.apply(record))
+            .exceptionallyCompose(failure -> fallback.apply(record, unwrap(failure)));
+        CompletableFuture<Void>[] chain = new CompletableFuture[1];
+        keyChains.compute(key, (k, previous) -> {
+            CompletableFuture<Void> after = previous != null ? previous : CompletableFuture.completedFuture(null);
+            chain[0] = after
+                .handle((ignored, failure) -> null)
+                .thenComposeAsync(ignored -> untilDone(partition, offsets, record.offset(), attempt), workers);
+            return chain[0];
+        });
+        chain[0].whenComplete((ignored, failure) -> {
+            keyChains.remove(key, chain[0]);
+            inFlight.decrementAndGet();
+            if (failure == null) {
+                offsets.completed(record.offset());
+            } else {
+                logger.debug("Dropped {}@{} after its partition was revoked", partition, record.offset());
+            }
+        });
+    }
+
+    /**
+     * Pauses every partition assigned to {@code consumer} while as many records as the
+     * ai-service limiter currently allows are in flight, and resumes them once there is room
+     * again. Polling carries on while paused, so the consumer keeps its group membership
+     * however long the limiter stays at its minimum; a poll already returned can overshoot the
+     * limit by at most {@code max.poll.records}.
+     */
+    public void throttle(Consumer<?, ?> consumer) {
+        if (inFlight.get() >= limiter.getLimit()) {
+            if (consumer.paused().size() < consumer.assignment().size()) {
+                consumer.pause(consumer.assignment());
+            }
+        } else if (!consumer.paused().isEmpty()) {
+            consumer.resume(consumer.paused());
+        }
+    }
+
+    /**
+     * Repeats {@code attempt} until it succeeds, completing exceptionally only once the partition
+     * is no longer ours, since its new owner redelivers the record anyway.
+     */
+    private CompletableFuture<Void> untilDone(TopicPartition partition, PartitionOffsets offsets, long offset,
+                                              Supplier<CompletableFuture<Void>> attempt) {
+        return attempt.get().exceptionallyCompose(failure -> {
+            if (partitions.get(partition) != offsets) {
+                return CompletableFuture.failedFuture(failure);
+            }
+            redispatchedCounter.increment();
+            logger.error("Work for {}@{} failed and could not be forwarded; dispatching it again in {} ms",
+                partition, offset, REDISPATCH_DELAY_MS, failure);
+            Executor delayed = CompletableFuture.delayedExecutor(REDISPATCH_DELAY_MS, TimeUnit.MILLISECONDS, workers);
+            return CompletableFuture.runAsync(() -> { }, delayed)
+                .thenCompose(ignored -> untilDone(partition, offsets, offset, attempt));
+        });
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    /** Commits the completed prefix of every partition currently assigned to the consumer. */
+    public void commit(Consumer<?, ?> consumer) {
+        commit(consumer, consumer.assignment());
+    }
+
+    @EventListener
+    public void onIdle(ListenerContainerIdleEvent event) {
+        // Progress made while no new records arrived (or while paused) would otherwise wait for the next poll
+        if (event.getConsumer() != null) {
+            commit(event.getConsumer());
+            throttle(event.getConsumer());
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> revoked) {
+        commit(consumer, revoked);
+        revoked.forEach(partitions::remove);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> lost) {
+        lost.forEach(partitions::remove);
+    }
+
+    private void commit(Consumer<?, ?> consumer, Collection<TopicPartition> assigned) {
+        Map<TopicPartition, OffsetAndMetadata> commits = new HashMap<>();
+        for (TopicPartition partition : assigned) {
+            PartitionOffsets offsets = partitions.get(partition);
+            if (offsets != null) {
+                long committable = offsets.takeCommittable();
+                if (committable >= 0) {
+                    commits.put(partition, new OffsetAndMetadata(committable));
+                }
+            }
+        }
+        if (!commits.isEmpty()) {
+            consumer.commitSync(commits);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    /** Offsets of one partition that have been dispatched but not yet completed. */
+    static final class PartitionOffsets {
+
+        private final ConcurrentSkipListSet<Long> pending = new ConcurrentSkipListSet<>();
+        private volatile long next = -1;
+        private long lastCommitted = -1;
+
+        void started(long offset) {
+            pending.add(offset);
+            next = offset + 1;
+        }
+
+        void completed(long offset) {
+            pending.remove(offset);
+        }
+
+        /** @return the offset to commit, or -1 if nothing new has completed since the last call */
+        long takeCommittable() {
+            long dispatched = next;
+            Long oldestPending = pending.ceiling(Long.MIN_VALUE);
+            long committable = oldestPending != null ? oldestPending : dispatched;
+            if (committable <= lastCommitted) {
+                return -1;
+            }
+            lastCommitted = committable;
+            return committable;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.medical.messaging;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    /**
+     * Claims the oldest pending events for this relay. Rows locked by a relay on another
+     * node are skipped rather than waited on, so relays never block each other.
+     */
+    @Query(value = "SELECT * FROM outbox_events ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+        nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e")
+    OffsetDateTime findOldestCreatedAt();
+}
@@ -0,0 +1,123 @@
+package com.example.medical.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Publishes committed outbox rows to the {@link EventBus} in batches and deletes them once the
+ * bus has accepted them. Rows are claimed with {@code FOR UPDATE SKIP LOCKED}, so any number of
+ * backend nodes can run the relay concurrently without double-publishing.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository repository;
+    private final OutboxService outboxService;
+    private final EventBus eventBus;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final AtomicReference<OffsetDateTime> oldestPending = new AtomicReference<>();
+    private final Timer publishDelayTimer;
+    private final Counter failureCounter;
+
+    public OutboxRelay(OutboxEventRepository repository,
+                       OutboxService outboxService,
+                       EventBus eventBus,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.batch-size:200}") int batchSize,
+                       @Value("${app.outbox.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.repository = repository;
+        this.outboxService = outboxService;
+        this.eventBus = eventBus;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+
+        Gauge.builder("medical.outbox.relay.lag", this, OutboxRelay::lagSeconds)
+            .description("Age of the oldest outbox event not yet published")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        this.publishDelayTimer = Timer.builder("medical.outbox.publish.delay")
+            .description("Time from an outbox event being written to it being accepted by the event bus")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.failureCounter = Counter.builder("medical.outbox.publish.failed")
+            .description("Outbox events that failed to publish and will be retried")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void relay() {
+        Integer published;
+        do {
+            published = transactionTemplate.execute(status -> relayBatch());
+        } while (published != null && published == batchSize);
+        oldestPending.set(repository.findOldestCreatedAt());
+    }
+
+    /** @return the number of events published, or -1 if any event in the batch failed */
+    private int relayBatch() {
+        List<OutboxEvent> batch = repository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent outboxEvent : batch) {
+            sends.add(send(outboxEvent));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<OutboxEvent> published = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent outboxEvent = batch.get(i);
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                published.add(outboxEvent);
+                publishDelayTimer.record(Duration.between(outboxEvent.getCreatedAt(), OffsetDateTime.now()));
+            } catch (Exception ex) {
+                // Left in the table; the next poll picks it up again
+                failureCounter.increment();
+                logger.warn("Outbox event {} not published: {}", outboxEvent.getId(), ex.toString());
+            }
+        }
+        repository.deleteAllInBatch(published);
+        return published.size() == batch.size() ? published.size() : -1;
+    }
+
+    private CompletableFuture<?> send(OutboxEvent outboxEvent) {
+        try {
+            if (!OutboxService.DOCUMENT_UPLOADED.equals(outboxEvent.getEventType())) {
+                throw new IllegalStateException("Unknown outbox event type " + outboxEvent.getEventType());
+            }
+            return eventBus.publish(outboxEvent.getTopic(), outboxEvent.getMessageKey(),
+                outboxService.readDocumentUploaded(outboxEvent));
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private double lagSeconds() {
+        OffsetDateTime oldest = oldestPending.get();
+        return oldest != null ? Duration.between(oldest, OffsetDateTime.now()).toMillis() / 1000.0 : 0;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.medical.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+
+/**
+ * Records outgoing events in the caller's transaction. {@link OutboxRelay} publishes them
+ * once the transaction has committed, so a rollback never emits an event and a broker
+ * outage never loses one.
+ */
+@Service
+public class OutboxService {
+
+    static final String DOCUMENT_UPLOADED = "DocumentUploaded";
+
+    private final OutboxEventRepository repository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxEventRepository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void enqueueDocumentUploaded(DocumentUploadedEvent event) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setTopic(EventBus.TOPIC_DOCUMENT_UPLOADED);
+        outboxEvent.setMessageKey(event.getReportId().toString());
+        outboxEvent.setEventType(DOCUMENT_UPLOADED);
+        outboxEvent.setPayload(write(event));
+        repository.save(outboxEvent);
+    }
+
+    DocumentUploadedEvent readDocumentUploaded(OutboxEvent outboxEvent) {
+        try {
+            return objectMapper.readValue(outboxEvent.getPayload(), DocumentUploadedEvent.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unreadable outbox payload " + outboxEvent.getId(), ex);
+        }
+    }
+
+    private String write(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize outbox event", ex);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.medical.messaging;
+
+import jakarta.transaction.Transactional;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, UUID> {
+
+    /** Records the event without a read first; a concurrent duplicate is silently ignored. */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO processed_events (event_id, processed_at) VALUES (:eventId, now()) "
+        + "ON CONFLICT (event_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("eventId") UUID eventId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ProcessedEvent e WHERE e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") OffsetDateTime cutoff);
+}
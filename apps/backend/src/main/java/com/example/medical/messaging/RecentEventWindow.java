@@ -0,0 +1,61 @@
+package com.example.medical.messaging;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Set of recently seen event ids bounded by both size and age. Lookups and inserts are O(1);
+ * the oldest ids are evicted in insertion order once either bound is exceeded.
+ */
+class RecentEventWindow {
+
+    private final Map<UUID, Long> seenAt = new ConcurrentHashMap<>();
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final int maxSize;
+    private final long ttlNanos;
+
+    RecentEventWindow(int maxSize, long ttlNanos) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlNanos;
+    }
+
+    boolean contains(UUID eventId) {
+        Long seen = seenAt.get(eventId);
+        if (seen == null) {
+            return false;
+        }
+        if (System.nanoTime() - seen > ttlNanos) {
+            seenAt.remove(eventId, seen);
+            return false;
+        }
+        return true;
+    }
+
+    void add(UUID eventId) {
+        long now = System.nanoTime();
+        seenAt.put(eventId, now);
+        insertionOrder.offer(new Entry(eventId, now));
+        evict(now);
+    }
+
+    int size() {
+        return seenAt.size();
+    }
+
+    private void evict(long now) {
+        Entry oldest;
+        while ((oldest = insertionOrder.peek()) != null
+            && (seenAt.size() > maxSize || now - oldest.seenAt() > ttlNanos)) {
+            oldest = insertionOrder.poll();
+            if (oldest != null) {
+                // Only drops the id if it was not seen again since this entry was queued
+                seenAt.remove(oldest.eventId(), oldest.seenAt());
+            }
+        }
+    }
+
+    private record Entry(UUID eventId, long seenAt) { }
+}
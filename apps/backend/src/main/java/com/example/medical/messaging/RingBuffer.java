@@ -0,0 +1,72 @@
+package com.example.medical.messaging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer. Producers claim a slot
+ * with one CAS on the shared position and publish it through the slot's sequence number, so
+ * neither side ever blocks; a full buffer makes {@link #offer} return {@code false}.
+ */
+final class RingBuffer<T> {
+
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong producerPosition = new AtomicLong();
+    private volatile long consumerPosition;
+
+    RingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a power of two: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(T item) {
+        long position;
+        int index;
+        while (true) {
+            position = producerPosition.get();
+            index = (int) (position & mask);
+            long available = sequences.get(index) - position;
+            if (available == 0 && producerPosition.compareAndSet(position, position + 1)) {
+                break;
+            }
+            if (available < 0) {
+                return false;
+            }
+        }
+        slots.lazySet(index, item);
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    /** Must only be called from the single consumer thread. */
+    T poll() {
+        long position = consumerPosition;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        T item = slots.get(index);
+        slots.lazySet(index, null);
+        sequences.set(index, position + mask + 1);
+        consumerPosition = position + 1;
+        return item;
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    int size() {
+        return (int) Math.max(0, producerPosition.get() - consumerPosition);
+    }
+}
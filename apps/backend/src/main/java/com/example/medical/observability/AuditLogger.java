@@ -33,4 +33,8 @@ public class AuditLogger {
     public void logDataExported(UUID userId, String resourceType, UUID resourceId) {
         auditLog.info("DATA_EXPORTED|userId={}|resourceType={}|resourceId={}", userId, resourceType, resourceId);
     }
+
+    public void logBulkDataExported(UUID userId, String resourceType, long records) {
+        auditLog.info("BULK_DATA_EXPORTED|userId={}|resourceType={}|records={}", userId, resourceType, records);
+    }
 }
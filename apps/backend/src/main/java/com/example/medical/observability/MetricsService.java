@@ -2,6 +2,8 @@ package com.example.medical.observability;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -11,6 +13,9 @@ public class MetricsService {
     private final Counter patientCreatedCounter;
     private final Counter authLoginCounter;
     private final Counter documentAnalyzedCounter;
+    private final Counter documentAnalysisFailedCounter;
+    private final Timer documentConsumeLagTimer;
+    private final Timer documentAnalysisLagTimer;
 
     public MetricsService(MeterRegistry meterRegistry) {
         this.reportCreatedCounter = Counter.builder("medical.reports.created")
@@ -25,6 +30,17 @@ public class MetricsService {
         this.documentAnalyzedCounter = Counter.builder("medical.documents.analyzed")
             .description("Total documents analyzed by AI")
             .register(meterRegistry);
+        this.documentAnalysisFailedCounter = Counter.builder("medical.documents.analysis.failed")
+            .description("Documents whose AI analysis failed")
+            .register(meterRegistry);
+        this.documentConsumeLagTimer = Timer.builder("medical.documents.consume.lag")
+            .description("Time from document upload to the event being picked up by a consumer")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.documentAnalysisLagTimer = Timer.builder("medical.documents.analysis.lag")
+            .description("Time from document upload to analysis completing")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
     }
 
     public void incrementReportCreated() {
@@ -42,4 +58,16 @@ public class MetricsService {
     public void incrementDocumentAnalyzed() {
         documentAnalyzedCounter.increment();
     }
+
+    public void incrementDocumentAnalysisFailed() {
+        documentAnalysisFailedCounter.increment();
+    }
+
+    public void recordDocumentConsumeLag(Duration lag) {
+        documentConsumeLagTimer.record(lag);
+    }
+
+    public void recordDocumentAnalysisLag(Duration lag) {
+        documentAnalysisLagTimer.record(lag);
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.medical.patient;
 
+import com.example.medical.cdc.ChangeTracked;
 import com.example.medical.common.BaseEntity;
 import com.example.medical.common.Gender;
 import com.example.medical.common.PatientStatus;
@@ -11,6 +12,7 @@ import jakarta.persistence.Table;
 import java.time.LocalDate;
 
 @Entity
+@ChangeTracked("patient")
 @Table(name = "patients")
 public class Patient extends BaseEntity {
 
@@ -1,8 +1,12 @@
 package com.example.medical.patient;
 
+import com.example.medical.common.BatchRequest;
+import com.example.medical.common.BatchResponse;
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,6 +15,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -18,9 +23,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class PatientController {
 
     private final PatientService service;
+    private final PatientSearch patientSearch;
 
-    public PatientController(PatientService service) {
+    public PatientController(PatientService service, PatientSearch patientSearch) {
         this.service = service;
+        this.patientSearch = patientSearch;
     }
 
     @PostMapping
@@ -29,6 +36,14 @@ public class PatientController {
         return ResponseEntity.status(HttpStatus.CREATED).body(PatientResponse.from(service.create(patient)));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResponse> createBatch(@Valid @RequestBody BatchRequest<PatientRequest> request) {
+        List<Patient> patients = request.getItems().stream().map(this::map).toList();
+        BatchResponse response = service.createAll(patients);
+        return ResponseEntity.status(response.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS)
+            .body(response);
+    }
+
     @PutMapping("/{id}")
     public PatientResponse update(@PathVariable UUID id, @Valid @RequestBody PatientRequest request) {
         Patient patient = map(request);
@@ -40,6 +55,20 @@ public class PatientController {
         return PatientResponse.from(service.get(id));
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<List<PatientResponse>> search(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dob,
+            @RequestParam(required = false) String phone,
+            @RequestParam(required = false) String email,
+            @RequestParam(defaultValue = "20") int limit) {
+        PatientSearch.Criteria criteria = new PatientSearch.Criteria(name, dob, phone, email, limit);
+        if (criteria.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(patientSearch.search(criteria).stream().map(PatientResponse::from).toList());
+    }
+
     @GetMapping
     public List<PatientResponse> list() {
         return service.list().stream().map(PatientResponse::from).toList();
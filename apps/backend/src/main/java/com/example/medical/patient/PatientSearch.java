@@ -0,0 +1,104 @@
+package com.example.medical.patient;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Patient lookup by name, date of birth, phone and email. Every predicate is written to match
+ * an index from migration V7, so lookups stay index-only at any table size:
+ * <ul>
+ *   <li>name: prefix of the last name or of "first last" (btree), or a fuzzy word match
+ *       through pg_trgm (GIN); prefix hits rank first, then by similarity</li>
+ *   <li>dob: exact</li>
+ *   <li>phone: digits only, so formatting is ignored</li>
+ *   <li>email: case-insensitive exact</li>
+ * </ul>
+ * Criteria combine with AND.
+ */
+@Component
+public class PatientSearch {
+
+    private static final String FULL_NAME = "lower(p.first_name || ' ' || p.last_name)";
+    private static final String PREFIX_MATCH = "(lower(p.last_name) LIKE :prefix OR " + FULL_NAME + " LIKE :prefix)";
+    // Trigrams need at least three characters to be selective
+    private static final int FUZZY_MIN_LENGTH = 3;
+
+    private final EntityManager entityManager;
+    private final int maxLimit;
+
+    public PatientSearch(EntityManager entityManager, @Value("${app.patients.search.max-limit:100}") int maxLimit) {
+        this.entityManager = entityManager;
+        this.maxLimit = maxLimit;
+    }
+
+    public record Criteria(String name, LocalDate dateOfBirth, String phone, String email, int limit) {
+
+        public boolean isEmpty() {
+            return (name == null || name.isBlank()) && dateOfBirth == null
+                && (phone == null || phone.isBlank()) && (email == null || email.isBlank());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Patient> search(Criteria criteria) {
+        List<String> where = new ArrayList<>();
+        Map<String, Object> params = new LinkedHashMap<>();
+        String order = "p.last_name, p.first_name";
+
+        String name = normalizeName(criteria.name());
+        if (name != null) {
+            params.put("prefix", escapeLike(name) + "%");
+            if (name.length() >= FUZZY_MIN_LENGTH) {
+                params.put("name", name);
+                where.add("(" + PREFIX_MATCH + " OR :name <% " + FULL_NAME + ")");
+                order = PREFIX_MATCH + " DESC, word_similarity(:name, " + FULL_NAME + ") DESC, " + order;
+            } else {
+                where.add(PREFIX_MATCH);
+            }
+        }
+        if (criteria.dateOfBirth() != null) {
+            where.add("p.dob = :dob");
+            params.put("dob", criteria.dateOfBirth());
+        }
+        String phone = criteria.phone() != null ? criteria.phone().replaceAll("[^0-9]", "") : "";
+        if (!phone.isEmpty()) {
+            where.add("regexp_replace(p.phone, '[^0-9]', '', 'g') = :phone");
+            params.put("phone", phone);
+        }
+        if (criteria.email() != null && !criteria.email().isBlank()) {
+            where.add("lower(p.email) = :email");
+            params.put("email", criteria.email().trim().toLowerCase(Locale.ROOT));
+        }
+        if (where.isEmpty()) {
+            return List.of();
+        }
+
+        Query query = entityManager.createNativeQuery("SELECT p.* FROM patients p WHERE " + String.join(" AND ", where)
+            + " ORDER BY " + order + " LIMIT :limit", Patient.class);
+        params.forEach(query::setParameter);
+        query.setParameter("limit", Math.max(1, Math.min(criteria.limit(), maxLimit)));
+        return query.getResultList();
+    }
+
+    private static String normalizeName(String name) {
+        if (name == null) {
+            return null;
+        }
+        String normalized = name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
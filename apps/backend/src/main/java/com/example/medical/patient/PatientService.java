@@ -1,26 +1,37 @@
 package com.example.medical.patient;
 
+import com.example.medical.common.BatchInserter;
+import com.example.medical.common.BatchResponse;
 import com.example.medical.common.PatientStatus;
 import com.example.medical.exception.NotFoundException;
-import jakarta.transaction.Transactional;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
 public class PatientService {
 
     private final PatientRepository repository;
+    private final BatchInserter batchInserter;
 
-    public PatientService(PatientRepository repository) {
+    public PatientService(PatientRepository repository, BatchInserter batchInserter) {
         this.repository = repository;
+        this.batchInserter = batchInserter;
     }
 
     public Patient create(Patient patient) {
         return repository.save(patient);
     }
 
+    /** Inserts in independently committed chunks; see {@link BatchInserter}. */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchResponse createAll(List<Patient> patients) {
+        return batchInserter.insertAll(patients, patient -> { });
+    }
+
     public Patient update(UUID id, Patient payload) {
         Patient existing = get(id);
         existing.setFirstName(payload.getFirstName());
@@ -33,10 +44,12 @@ public class PatientService {
         return existing;
     }
 
+    @Transactional(readOnly = true)
     public Patient get(UUID id) {
         return repository.findById(id).orElseThrow(() -> new NotFoundException("Patient not found"));
     }
 
+    @Transactional(readOnly = true)
     public List<Patient> list() {
         return repository.findAll();
     }
@@ -0,0 +1,7 @@
+package com.example.medical.prescription;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record ActiveMedication(UUID prescriptionId, String drugName, LocalDate endDate) {
+}
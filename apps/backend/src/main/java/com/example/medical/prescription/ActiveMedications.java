@@ -0,0 +1,121 @@
+package com.example.medical.prescription;
+
+import com.example.medical.cache.NearCache;
+import com.example.medical.messaging.EntityChange;
+import com.example.medical.messaging.EntityChangeBatch;
+import com.example.medical.messaging.EventBus;
+import com.example.medical.messaging.EventSubscriber;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per-patient cache of active prescriptions as interned drug ids, so an interaction check on
+ * create needs no query. Only drugs known to {@link DrugInteractionEngine} are kept.
+ * <p>
+ * {@link PrescriptionService} drops a patient's entry after each committed write, and every
+ * node drops entries for prescriptions changed elsewhere from the {@code entity-changes}
+ * feed. The TTL also retires prescriptions whose end date passes while cached. Misses inside a
+ * write transaction are read but not cached, since they may include rows that never commit.
+ */
+@Component
+public class ActiveMedications implements EventSubscriber<EntityChangeBatch> {
+
+    private final PrescriptionRepository repository;
+    private final DrugInteractionEngine engine;
+    private final NearCache<UUID, List<Medication>> byPatient;
+
+    public ActiveMedications(PrescriptionRepository repository,
+                             DrugInteractionEngine engine,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.prescriptions.active-cache.max-size:20000}") int maxSize,
+                             @Value("${app.prescriptions.active-cache.ttl-ms:60000}") long ttlMs) {
+        this.repository = repository;
+        this.engine = engine;
+        this.byPatient = new NearCache<>("active-medications", maxSize, ttlMs, meterRegistry);
+    }
+
+    /** Drug ids of the patient's active prescriptions, leaving out {@code excluding} if given. */
+    public int[] drugIds(UUID patientId, UUID excluding) {
+        List<Medication> medications = uncommittedWritesVisible()
+            ? cachedOrLoad(patientId)
+            : byPatient.get(patientId, this::load);
+        LocalDate today = LocalDate.now();
+        int[] ids = new int[medications.size()];
+        int count = 0;
+        for (Medication medication : medications) {
+            if (!medication.prescriptionId().equals(excluding)
+                && (medication.endDate() == null || !medication.endDate().isBefore(today))) {
+                ids[count++] = medication.drugId();
+            }
+        }
+        return count == ids.length ? ids : Arrays.copyOf(ids, count);
+    }
+
+    /** Drops the patient's entry once the current transaction commits. */
+    public void invalidateAfterCommit(UUID patientId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    byPatient.invalidate(patientId);
+                }
+            });
+        } else {
+            byPatient.invalidate(patientId);
+        }
+    }
+
+    @Override
+    public String topic() {
+        return EventBus.TOPIC_ENTITY_CHANGES;
+    }
+
+    @Override
+    public Class<EntityChangeBatch> eventType() {
+        return EntityChangeBatch.class;
+    }
+
+    @Override
+    public void handle(EntityChangeBatch event) {
+        for (EntityChange change : event.getChanges()) {
+            if (!"prescription".equals(change.entityType())) {
+                continue;
+            }
+            UUID id = change.entityId();
+            if (change.operation() == EntityChange.Operation.DELETE) {
+                // The row is gone, so find the patient through the cached entries instead
+                byPatient.invalidateIf((patientId, medications) ->
+                    medications.stream().anyMatch(medication -> medication.prescriptionId().equals(id)));
+            } else {
+                repository.findPatientIdById(id).ifPresent(byPatient::invalidate);
+            }
+        }
+    }
+
+    private List<Medication> cachedOrLoad(UUID patientId) {
+        List<Medication> cached = byPatient.getIfPresent(patientId);
+        return cached != null ? cached : load(patientId);
+    }
+
+    private static boolean uncommittedWritesVisible() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private List<Medication> load(UUID patientId) {
+        return repository.findActiveMedications(patientId).stream()
+            .map(active -> new Medication(active.prescriptionId(), engine.idOf(active.drugName()), active.endDate()))
+            .filter(medication -> medication.drugId() != DrugInteractionEngine.UNKNOWN)
+            .toList();
+    }
+
+    private record Medication(UUID prescriptionId, int drugId, LocalDate endDate) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.medical.prescription;
+
+/** A known interaction between two drugs, named as in the interaction dataset. */
+public record DrugInteraction(String drug, String interactsWith, Severity severity, String description) {
+
+    public enum Severity {
+        MINOR,
+        MODERATE,
+        MAJOR,
+        CONTRAINDICATED
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.medical.prescription;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drug interactions loaded once from a local CSV dataset ({@code drug_a,drug_b,severity,description}).
+ * <p>
+ * Drug names are normalized and interned to dense integer ids, and the symmetric interaction
+ * matrix is kept as one bitset row per drug, so testing a pair is a single bit lookup. Details
+ * for the few pairs that do interact live in a sparse map keyed by the packed id pair.
+ * Drugs missing from the dataset get {@link #UNKNOWN} and never interact.
+ */
+@Component
+public class DrugInteractionEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(DrugInteractionEngine.class);
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    public static final int UNKNOWN = -1;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final Map<Long, DrugInteraction> details = new HashMap<>();
+    private final long[][] matrix;
+    private final Timer checkTimer;
+
+    public DrugInteractionEngine(
+            @Value("${app.prescriptions.interactions.dataset:classpath:interactions/drug-interactions.csv}") Resource dataset,
+            MeterRegistry meterRegistry) {
+        List<DrugInteraction> interactions = read(dataset);
+        for (DrugInteraction interaction : interactions) {
+            intern(interaction.drug());
+            intern(interaction.interactsWith());
+        }
+        int words = (names.size() + 63) >>> 6;
+        this.matrix = new long[names.size()][words];
+        for (DrugInteraction interaction : interactions) {
+            int a = ids.get(normalize(interaction.drug()));
+            int b = ids.get(normalize(interaction.interactsWith()));
+            if (a == b) {
+                continue;
+            }
+            matrix[a][b >>> 6] |= 1L << b;
+            matrix[b][a >>> 6] |= 1L << a;
+            details.put(pair(a, b), interaction);
+        }
+        this.checkTimer = Timer.builder("medical.prescriptions.interactions.check")
+            .description("Time to check a set of drugs for interactions")
+            .register(meterRegistry);
+        logger.info("Loaded {} drug interactions across {} drugs", details.size(), names.size());
+    }
+
+    /** Interned id of the drug, or {@link #UNKNOWN} if the dataset does not mention it. */
+    public int idOf(String drugName) {
+        return drugName == null ? UNKNOWN : ids.getOrDefault(normalize(drugName), UNKNOWN);
+    }
+
+    /** Interactions between {@code drug} and any of {@code others}. */
+    public List<DrugInteraction> between(int drug, int[] others) {
+        if (drug == UNKNOWN) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        List<DrugInteraction> found = new ArrayList<>(0);
+        long[] row = matrix[drug];
+        for (int other : others) {
+            if (other != UNKNOWN && (row[other >>> 6] & (1L << other)) != 0) {
+                found.add(oriented(drug, other));
+            }
+        }
+        checkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return found;
+    }
+
+    /** Every interacting pair within {@code drugs}, each reported once. */
+    public List<DrugInteraction> within(int[] drugs) {
+        long start = System.nanoTime();
+        int[] distinct = Arrays.stream(drugs).filter(id -> id != UNKNOWN).distinct().toArray();
+        List<DrugInteraction> found = new ArrayList<>(0);
+        for (int i = 0; i < distinct.length; i++) {
+            long[] row = matrix[distinct[i]];
+            for (int j = i + 1; j < distinct.length; j++) {
+                if ((row[distinct[j] >>> 6] & (1L << distinct[j])) != 0) {
+                    found.add(oriented(distinct[i], distinct[j]));
+                }
+            }
+        }
+        checkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return found;
+    }
+
+    private DrugInteraction oriented(int drug, int other) {
+        DrugInteraction interaction = details.get(pair(drug, other));
+        return new DrugInteraction(names.get(drug), names.get(other), interaction.severity(), interaction.description());
+    }
+
+    private void intern(String drugName) {
+        String key = normalize(drugName);
+        if (!ids.containsKey(key)) {
+            ids.put(key, names.size());
+            names.add(drugName.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    static String normalize(String drugName) {
+        return NON_ALPHANUMERIC.matcher(drugName.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static long pair(int a, int b) {
+        return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+    }
+
+    private static List<DrugInteraction> read(Resource dataset) {
+        List<DrugInteraction> interactions = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(dataset.getInputStream(), StandardCharsets.UTF_8))) {
+            reader.readLine();
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                // The description is the last column and may itself contain commas
+                String[] columns = line.split(",", 4);
+                try {
+                    if (columns.length < 3 || normalize(columns[0]).isEmpty() || normalize(columns[1]).isEmpty()) {
+                        throw new IllegalArgumentException("expected drug_a,drug_b,severity[,description]");
+                    }
+                    DrugInteraction.Severity severity =
+                        DrugInteraction.Severity.valueOf(columns[2].trim().toUpperCase(Locale.ROOT));
+                    String description = columns.length > 3 ? columns[3].trim() : "";
+                    interactions.add(new DrugInteraction(columns[0], columns[1], severity, description));
+                } catch (IllegalArgumentException ex) {
+                    logger.warn("Skipping line {} of {}: {}", lineNumber, dataset.getDescription(), ex.getMessage());
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read drug interaction dataset " + dataset.getDescription(), ex);
+        }
+        return interactions;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.medical.prescription;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.util.UUID;
+
+public class InteractionCheckRequest {
+    private UUID patientId;
+    @NotEmpty
+    @Size(max = 100)
+    private List<@NotBlank String> drugs;
+
+    public UUID getPatientId() {
+        return patientId;
+    }
+
+    public void setPatientId(UUID patientId) {
+        this.patientId = patientId;
+    }
+
+    public List<String> getDrugs() {
+        return drugs;
+    }
+
+    public void setDrugs(List<String> drugs) {
+        this.drugs = drugs;
+    }
+}
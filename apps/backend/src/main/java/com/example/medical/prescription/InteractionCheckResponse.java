@@ -0,0 +1,7 @@
+package com.example.medical.prescription;
+
+import java.util.List;
+
+/** Interactions found in a regimen, and the drug names the interaction dataset does not know. */
+public record InteractionCheckResponse(List<DrugInteraction> interactions, List<String> unrecognized) {
+}
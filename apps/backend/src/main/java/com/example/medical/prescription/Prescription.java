@@ -1,5 +1,6 @@
 package com.example.medical.prescription;
 
+import com.example.medical.cdc.ChangeTracked;
 import com.example.medical.common.BaseEntity;
 import com.example.medical.common.PrescriptionStatus;
 import com.example.medical.doctor.Doctor;
@@ -12,9 +13,12 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import java.time.LocalDate;
+import java.util.List;
 
 @Entity
+@ChangeTracked("prescription")
 @Table(name = "prescriptions")
 public class Prescription extends BaseEntity {
 
@@ -48,6 +52,13 @@ public class Prescription extends BaseEntity {
     @Column(name = "status", nullable = false)
     private PrescriptionStatus status = PrescriptionStatus.ACTIVE;
 
+    /**
+     * Interactions with the patient's other active prescriptions, found by the create or update
+     * that produced this instance. Not stored; {@code null} on prescriptions that were only read.
+     */
+    @Transient
+    private List<DrugInteraction> interactions;
+
     public Patient getPatient() {
         return patient;
     }
@@ -119,4 +130,12 @@ public class Prescription extends BaseEntity {
     public void setStatus(PrescriptionStatus status) {
         this.status = status;
     }
+
+    public List<DrugInteraction> getInteractions() {
+        return interactions;
+    }
+
+    public void setInteractions(List<DrugInteraction> interactions) {
+        this.interactions = interactions;
+    }
 }
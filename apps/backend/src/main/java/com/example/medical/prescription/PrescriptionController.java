@@ -1,5 +1,7 @@
 package com.example.medical.prescription;
 
+import com.example.medical.common.BatchRequest;
+import com.example.medical.common.BatchResponse;
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.UUID;
@@ -32,6 +34,16 @@ public class PrescriptionController {
             .body(PrescriptionResponse.from(service.create(patientId, doctorId, prescription)));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResponse> createBatch(@PathVariable UUID patientId,
+                                                     @RequestParam UUID doctorId,
+                                                     @Valid @RequestBody BatchRequest<PrescriptionRequest> request) {
+        List<Prescription> prescriptions = request.getItems().stream().map(this::map).toList();
+        BatchResponse response = service.createAll(patientId, doctorId, prescriptions);
+        return ResponseEntity.status(response.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS)
+            .body(response);
+    }
+
     @GetMapping
     public List<PrescriptionResponse> list(@PathVariable UUID patientId) {
         return service.findByPatient(patientId).stream().map(PrescriptionResponse::from).toList();
@@ -1,9 +1,20 @@
 package com.example.medical.prescription;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface PrescriptionRepository extends JpaRepository<Prescription, UUID> {
     List<Prescription> findByPatientId(UUID patientId);
+
+    @Query("SELECT new com.example.medical.prescription.ActiveMedication(p.id, p.drugName, p.endDate) "
+        + "FROM Prescription p WHERE p.patient.id = :patientId "
+        + "AND p.status = com.example.medical.common.PrescriptionStatus.ACTIVE")
+    List<ActiveMedication> findActiveMedications(@Param("patientId") UUID patientId);
+
+    @Query("SELECT p.patient.id FROM Prescription p WHERE p.id = :id")
+    Optional<UUID> findPatientIdById(@Param("id") UUID id);
 }
@@ -1,7 +1,9 @@
 package com.example.medical.prescription;
 
 import com.example.medical.common.PrescriptionStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 public class PrescriptionResponse {
@@ -15,6 +17,9 @@ public class PrescriptionResponse {
     private LocalDate startDate;
     private LocalDate endDate;
     private PrescriptionStatus status;
+    // Only writes check for interactions; reads omit the field rather than report none
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<DrugInteraction> interactions;
 
     public static PrescriptionResponse from(Prescription prescription) {
         PrescriptionResponse response = new PrescriptionResponse();
@@ -28,6 +33,7 @@ public class PrescriptionResponse {
         response.startDate = prescription.getStartDate();
         response.endDate = prescription.getEndDate();
         response.status = prescription.getStatus();
+        response.interactions = prescription.getInteractions();
         return response;
     }
 
@@ -70,4 +76,8 @@ public class PrescriptionResponse {
     public PrescriptionStatus getStatus() {
         return status;
     }
+
+    public List<DrugInteraction> getInteractions() {
+        return interactions;
+    }
 }
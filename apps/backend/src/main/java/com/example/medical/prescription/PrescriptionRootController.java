@@ -1,5 +1,6 @@
 package com.example.medical.prescription;
 
+import jakarta.validation.Valid;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.http.HttpStatus;
@@ -48,28 +49,19 @@ public class PrescriptionRootController {
     public ResponseEntity<PrescriptionResponse> updatePrescription(
             @PathVariable UUID id,
             @RequestBody PrescriptionRequest request) {
-        return repository.findById(id)
-            .map(existing -> {
-                existing.setDrugName(request.getDrugName());
-                existing.setDosage(request.getDosage());
-                existing.setFrequency(request.getFrequency());
-                existing.setRoute(request.getRoute());
-                existing.setStartDate(request.getStartDate());
-                existing.setEndDate(request.getEndDate());
-                existing.setStatus(request.getStatus());
-                Prescription updated = repository.save(existing);
-                return ResponseEntity.ok(PrescriptionResponse.from(updated));
-            })
-            .orElse(ResponseEntity.notFound().build());
+        return ResponseEntity.ok(PrescriptionResponse.from(service.update(id, map(request))));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePrescription(@PathVariable UUID id) {
-        if (repository.existsById(id)) {
-            repository.deleteById(id);
-            return ResponseEntity.noContent().build();
-        }
-        return ResponseEntity.notFound().build();
+        service.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /** Checks a proposed regimen for interactions, optionally against a patient's active prescriptions. */
+    @PostMapping("/check")
+    public ResponseEntity<InteractionCheckResponse> checkInteractions(@Valid @RequestBody InteractionCheckRequest request) {
+        return ResponseEntity.ok(service.check(request.getPatientId(), request.getDrugs()));
     }
 
     private Prescription map(PrescriptionRequest request) {
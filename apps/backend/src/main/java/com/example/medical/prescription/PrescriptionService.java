@@ -1,42 +1,158 @@
 package com.example.medical.prescription;
 
+import com.example.medical.cache.ReferenceCache;
+import com.example.medical.common.BatchInserter;
+import com.example.medical.common.BatchResponse;
+import com.example.medical.common.PrescriptionStatus;
 import com.example.medical.doctor.Doctor;
-import com.example.medical.doctor.DoctorRepository;
 import com.example.medical.exception.NotFoundException;
 import com.example.medical.patient.Patient;
-import com.example.medical.patient.PatientRepository;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
 public class PrescriptionService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PrescriptionService.class);
+
     private final PrescriptionRepository repository;
-    private final PatientRepository patientRepository;
-    private final DoctorRepository doctorRepository;
+    private final ReferenceCache referenceCache;
+    private final BatchInserter batchInserter;
+    private final EntityManager entityManager;
+    private final DrugInteractionEngine interactionEngine;
+    private final ActiveMedications activeMedications;
+    private final Map<DrugInteraction.Severity, Counter> flaggedCounters = new EnumMap<>(DrugInteraction.Severity.class);
 
     public PrescriptionService(PrescriptionRepository repository,
-                               PatientRepository patientRepository,
-                               DoctorRepository doctorRepository) {
+                               ReferenceCache referenceCache,
+                               BatchInserter batchInserter,
+                               EntityManager entityManager,
+                               DrugInteractionEngine interactionEngine,
+                               ActiveMedications activeMedications,
+                               MeterRegistry meterRegistry) {
         this.repository = repository;
-        this.patientRepository = patientRepository;
-        this.doctorRepository = doctorRepository;
+        this.referenceCache = referenceCache;
+        this.batchInserter = batchInserter;
+        this.entityManager = entityManager;
+        this.interactionEngine = interactionEngine;
+        this.activeMedications = activeMedications;
+        for (DrugInteraction.Severity severity : DrugInteraction.Severity.values()) {
+            flaggedCounters.put(severity, Counter.builder("medical.prescriptions.interactions.flagged")
+                .description("Interactions flagged on prescriptions as they were written")
+                .tag("severity", severity.name())
+                .register(meterRegistry));
+        }
     }
 
+    /** Saves the prescription and flags interactions with the patient's other active prescriptions. */
     public Prescription create(UUID patientId, UUID doctorId, Prescription payload) {
-        Patient patient = patientRepository.findById(patientId)
-            .orElseThrow(() -> new NotFoundException("Patient not found"));
-        Doctor doctor = doctorRepository.findById(doctorId)
-            .orElseThrow(() -> new NotFoundException("Doctor not found"));
+        Patient patient = referenceCache.patient(patientId);
+        Doctor doctor = referenceCache.doctor(doctorId);
         payload.setPatient(patient);
         payload.setDoctor(doctor);
-        return repository.save(payload);
+        Prescription saved = repository.save(payload);
+        flagInteractions(patientId, saved);
+        activeMedications.invalidateAfterCommit(patientId);
+        return saved;
+    }
+
+    /** Inserts in independently committed chunks; see {@link BatchInserter}. */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchResponse createAll(UUID patientId, UUID doctorId, List<Prescription> payloads) {
+        referenceCache.patient(patientId);
+        referenceCache.doctor(doctorId);
+        // References only carry the ids, so no patient or doctor row is loaded per chunk
+        BatchResponse response = batchInserter.insertAll(payloads, prescription -> {
+            prescription.setPatient(entityManager.getReference(Patient.class, patientId));
+            prescription.setDoctor(entityManager.getReference(Doctor.class, doctorId));
+        });
+        activeMedications.invalidateAfterCommit(patientId);
+        return response;
     }
 
+    public Prescription update(UUID id, Prescription payload) {
+        Prescription existing = repository.findById(id)
+            .orElseThrow(() -> new NotFoundException("Prescription not found"));
+        existing.setDrugName(payload.getDrugName());
+        existing.setDosage(payload.getDosage());
+        existing.setFrequency(payload.getFrequency());
+        existing.setRoute(payload.getRoute());
+        existing.setStartDate(payload.getStartDate());
+        existing.setEndDate(payload.getEndDate());
+        existing.setStatus(payload.getStatus());
+        UUID patientId = existing.getPatient().getId();
+        flagInteractions(patientId, existing);
+        activeMedications.invalidateAfterCommit(patientId);
+        return existing;
+    }
+
+    public void delete(UUID id) {
+        UUID patientId = repository.findPatientIdById(id)
+            .orElseThrow(() -> new NotFoundException("Prescription not found"));
+        repository.deleteById(id);
+        activeMedications.invalidateAfterCommit(patientId);
+    }
+
+    @Transactional(readOnly = true)
     public List<Prescription> findByPatient(UUID patientId) {
         return repository.findByPatientId(patientId);
     }
+
+    /**
+     * Checks a whole regimen: every pair within {@code drugNames}, plus each of them against the
+     * patient's active prescriptions when {@code patientId} is given.
+     */
+    @Transactional(readOnly = true)
+    public InteractionCheckResponse check(UUID patientId, List<String> drugNames) {
+        int[] regimen = new int[drugNames.size()];
+        List<String> unrecognized = new ArrayList<>();
+        for (int i = 0; i < regimen.length; i++) {
+            regimen[i] = interactionEngine.idOf(drugNames.get(i));
+            if (regimen[i] == DrugInteractionEngine.UNKNOWN) {
+                unrecognized.add(drugNames.get(i));
+            }
+        }
+        List<DrugInteraction> interactions = new ArrayList<>(interactionEngine.within(regimen));
+        if (patientId != null) {
+            referenceCache.patient(patientId);
+            // Drugs already in the regimen were paired with each other above
+            int[] active = Arrays.stream(activeMedications.drugIds(patientId, null))
+                .filter(drug -> Arrays.stream(regimen).noneMatch(id -> id == drug))
+                .distinct()
+                .toArray();
+            for (int drug : Arrays.stream(regimen).distinct().toArray()) {
+                interactions.addAll(interactionEngine.between(drug, active));
+            }
+        }
+        return new InteractionCheckResponse(interactions, unrecognized);
+    }
+
+    private void flagInteractions(UUID patientId, Prescription prescription) {
+        if (prescription.getStatus() != PrescriptionStatus.ACTIVE) {
+            prescription.setInteractions(List.of());
+            return;
+        }
+        List<DrugInteraction> interactions = interactionEngine.between(
+            interactionEngine.idOf(prescription.getDrugName()), activeMedications.drugIds(patientId, prescription.getId()));
+        for (DrugInteraction interaction : interactions) {
+            flaggedCounters.get(interaction.severity()).increment();
+            // Drug names and the patient are PHI; the flags are returned to the caller of the write
+            logger.info("Prescription {} flagged with a {} drug interaction", prescription.getId(),
+                interaction.severity());
+        }
+        prescription.setInteractions(interactions);
+    }
 }
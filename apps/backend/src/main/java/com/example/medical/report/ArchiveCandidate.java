@@ -0,0 +1,6 @@
+package com.example.medical.report;
+
+import java.util.UUID;
+
+public record ArchiveCandidate(UUID reportId, String storageUrl) {
+}
@@ -1,5 +1,6 @@
 package com.example.medical.report;
 
+import com.example.medical.cdc.ChangeTracked;
 import com.example.medical.common.BaseEntity;
 import com.example.medical.common.ReportStatus;
 import com.example.medical.doctor.Doctor;
@@ -13,8 +14,10 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 
 @Entity
+@ChangeTracked("medical_report")
 @Table(name = "medical_reports")
 public class MedicalReport extends BaseEntity {
 
@@ -45,6 +48,19 @@ public class MedicalReport extends BaseEntity {
     @Column(name = "report_date", nullable = false)
     private LocalDate reportDate;
 
+    @Column(name = "archived_at")
+    private OffsetDateTime archivedAt;
+
+    // Null on an archived report when its file was already gone from hot storage
+    @Column(name = "archive_segment")
+    private String archiveSegment;
+
+    @Column(name = "archive_offset")
+    private Long archiveOffset;
+
+    @Column(name = "archive_length")
+    private Long archiveLength;
+
     public Patient getPatient() {
         return patient;
     }
@@ -108,4 +124,36 @@ public class MedicalReport extends BaseEntity {
     public void setReportDate(LocalDate reportDate) {
         this.reportDate = reportDate;
     }
+
+    public OffsetDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(OffsetDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+
+    public String getArchiveSegment() {
+        return archiveSegment;
+    }
+
+    public void setArchiveSegment(String archiveSegment) {
+        this.archiveSegment = archiveSegment;
+    }
+
+    public Long getArchiveOffset() {
+        return archiveOffset;
+    }
+
+    public void setArchiveOffset(Long archiveOffset) {
+        this.archiveOffset = archiveOffset;
+    }
+
+    public Long getArchiveLength() {
+        return archiveLength;
+    }
+
+    public void setArchiveLength(Long archiveLength) {
+        this.archiveLength = archiveLength;
+    }
 }
@@ -1,13 +1,40 @@
 package com.example.medical.report;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface MedicalReportRepository extends JpaRepository<MedicalReport, UUID> {
     List<MedicalReport> findByPatientId(UUID patientId);
     Page<MedicalReport> findByPatientId(UUID patientId, Pageable pageable);
     List<MedicalReport> findByDoctorId(UUID doctorId);
+
+    /** Oldest finished reports whose files are still on hot storage. */
+    @Query("SELECT new com.example.medical.report.ArchiveCandidate(r.id, r.storageUrl) FROM MedicalReport r "
+        + "WHERE r.archivedAt IS NULL AND r.createdAt < :cutoff "
+        + "AND r.status <> com.example.medical.common.ReportStatus.PROCESSING ORDER BY r.createdAt")
+    List<ArchiveCandidate> findArchiveCandidates(@Param("cutoff") OffsetDateTime cutoff, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE MedicalReport r SET r.archivedAt = :archivedAt, r.archiveSegment = :segment, "
+        + "r.archiveOffset = :offset, r.archiveLength = :length WHERE r.id = :id AND r.archivedAt IS NULL")
+    int markArchived(@Param("id") UUID id,
+                     @Param("segment") String segment,
+                     @Param("offset") long offset,
+                     @Param("length") long length,
+                     @Param("archivedAt") OffsetDateTime archivedAt);
+
+    /** Retires a candidate whose file is already gone, so it no longer blocks later runs. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE MedicalReport r SET r.archivedAt = :archivedAt WHERE r.id = :id AND r.archivedAt IS NULL")
+    int markFileMissing(@Param("id") UUID id, @Param("archivedAt") OffsetDateTime archivedAt);
 }
@@ -1,47 +1,41 @@
 package com.example.medical.report;
 
+import com.example.medical.cache.ReferenceCache;
 import com.example.medical.common.ReportStatus;
 import com.example.medical.doctor.Doctor;
-import com.example.medical.doctor.DoctorRepository;
 import com.example.medical.exception.NotFoundException;
 import com.example.medical.messaging.DocumentUploadedEvent;
-import com.example.medical.messaging.KafkaProducerService;
+import com.example.medical.messaging.OutboxService;
 import com.example.medical.patient.Patient;
-import com.example.medical.patient.PatientRepository;
-import jakarta.transaction.Transactional;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
 public class MedicalReportService {
 
     private final MedicalReportRepository repository;
-    private final PatientRepository patientRepository;
-    private final DoctorRepository doctorRepository;
-    private final KafkaProducerService kafkaProducerService;
+    private final ReferenceCache referenceCache;
+    private final OutboxService outboxService;
 
     public MedicalReportService(MedicalReportRepository repository,
-                                PatientRepository patientRepository,
-                                DoctorRepository doctorRepository,
-                                KafkaProducerService kafkaProducerService) {
+                                ReferenceCache referenceCache,
+                                OutboxService outboxService) {
         this.repository = repository;
-        this.patientRepository = patientRepository;
-        this.doctorRepository = doctorRepository;
-        this.kafkaProducerService = kafkaProducerService;
+        this.referenceCache = referenceCache;
+        this.outboxService = outboxService;
     }
 
     public MedicalReport create(UUID patientId, UUID doctorId, MedicalReport payload) {
-        Patient patient = patientRepository.findById(patientId)
-            .orElseThrow(() -> new NotFoundException("Patient not found"));
-        Doctor doctor = doctorRepository.findById(doctorId)
-            .orElseThrow(() -> new NotFoundException("Doctor not found"));
+        Patient patient = referenceCache.patient(patientId);
+        Doctor doctor = referenceCache.doctor(doctorId);
         payload.setPatient(patient);
         payload.setDoctor(doctor);
         MedicalReport saved = repository.save(payload);
-        // Publish document-uploaded event to Kafka
-        kafkaProducerService.publishDocumentUploaded(
+        // Recorded in this transaction; OutboxRelay publishes it to Kafka after commit
+        outboxService.enqueueDocumentUploaded(
             new DocumentUploadedEvent(saved.getId(), patientId, saved.getStorageUrl())
         );
         return saved;
@@ -61,14 +55,17 @@ public class MedicalReportService {
         return report;
     }
 
+    @Transactional(readOnly = true)
     public MedicalReport get(UUID reportId) {
         return repository.findById(reportId).orElseThrow(() -> new NotFoundException("Report not found"));
     }
 
+    @Transactional(readOnly = true)
     public List<MedicalReport> findByPatient(UUID patientId) {
         return repository.findByPatientId(patientId);
     }
 
+    @Transactional(readOnly = true)
     public List<MedicalReport> findByDoctor(UUID doctorId) {
         return repository.findByDoctorId(doctorId);
     }
@@ -0,0 +1,180 @@
+package com.example.medical.report;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves the files of finished reports older than {@code app.archive.reports.older-than-days}
+ * from hot storage into {@link ReportColdStore} segments. A segment is sealed before its rows
+ * are marked archived, and hot files are deleted only after that commit, so a crash at any
+ * point leaves every report readable from one tier or the other. Candidates whose hot file is
+ * already missing are marked archived without a segment, so they stop being selected.
+ */
+@Component
+public class ReportArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportArchiver.class);
+
+    private static final long LOCK_KEY = 0x7265706f72746172L;
+
+    private final MedicalReportRepository repository;
+    private final ReportColdStore coldStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int olderThanDays;
+    private final int maxPerRun;
+    private final long segmentMaxBytes;
+    private final Counter archivedCounter;
+    private final Counter originalBytes;
+    private final Counter compressedBytes;
+
+    public ReportArchiver(MedicalReportRepository repository,
+                          ReportColdStore coldStore,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.archive.reports.older-than-days:365}") int olderThanDays,
+                          @Value("${app.archive.reports.max-per-run:10000}") int maxPerRun,
+                          @Value("${app.archive.reports.segment-max-bytes:268435456}") long segmentMaxBytes) {
+        this.repository = repository;
+        this.coldStore = coldStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.olderThanDays = olderThanDays;
+        this.maxPerRun = maxPerRun;
+        this.segmentMaxBytes = segmentMaxBytes;
+        this.archivedCounter = Counter.builder("medical.reports.archived")
+            .description("Report files moved to the cold tier")
+            .register(meterRegistry);
+        this.originalBytes = Counter.builder("medical.reports.archive.bytes")
+            .description("Bytes of report files moved to the cold tier")
+            .baseUnit("bytes")
+            .tag("kind", "original")
+            .register(meterRegistry);
+        this.compressedBytes = Counter.builder("medical.reports.archive.bytes")
+            .description("Bytes of report files moved to the cold tier")
+            .baseUnit("bytes")
+            .tag("kind", "compressed")
+            .register(meterRegistry);
+    }
+
+    /** Runs on one node at a time; the others skip the run while the advisory lock is held. */
+    @Scheduled(cron = "${app.archive.reports.cron:0 30 2 * * *}")
+    public void archive() {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    if (!tryLock(statement)) {
+                        return null;
+                    }
+                    try {
+                        archiveBatch();
+                    } finally {
+                        statement.execute("SELECT pg_advisory_unlock(" + LOCK_KEY + ")");
+                    }
+                }
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            logger.error("Report archival failed, retrying on the next run", ex);
+        }
+    }
+
+    private void archiveBatch() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minusDays(olderThanDays);
+        List<ArchiveCandidate> candidates = repository.findArchiveCandidates(cutoff, PageRequest.of(0, maxPerRun));
+        List<UUID> missing = new ArrayList<>();
+        int from = 0;
+        while (from < candidates.size()) {
+            try (ReportColdStore.SegmentWriter segment = coldStore.newSegment()) {
+                List<ArchiveCandidate> packed = candidates.subList(from, candidates.size());
+                int consumed = 0;
+                for (ArchiveCandidate candidate : packed) {
+                    if (segment.size() >= segmentMaxBytes) {
+                        break;
+                    }
+                    consumed++;
+                    Path file = Paths.get(candidate.storageUrl());
+                    try {
+                        segment.append(candidate.reportId(), file);
+                    } catch (NoSuchFileException ex) {
+                        logger.warn("Report {} has no file at {}, marking it archived without one",
+                            candidate.reportId(), file);
+                        missing.add(candidate.reportId());
+                    }
+                }
+                from += consumed;
+                if (!segment.isEmpty()) {
+                    commit(segment.name(), segment.seal(), packed.subList(0, consumed));
+                }
+            } catch (IOException ex) {
+                // The unsealed segment is never referenced; its rows stay hot and are retried next run
+                logger.error("Writing archive segment failed after {} of {} reports", from, candidates.size(), ex);
+                break;
+            }
+        }
+        markMissing(missing);
+    }
+
+    private void markMissing(List<UUID> reportIds) {
+        if (reportIds.isEmpty()) {
+            return;
+        }
+        OffsetDateTime archivedAt = OffsetDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (UUID reportId : reportIds) {
+                repository.markFileMissing(reportId, archivedAt);
+            }
+        });
+    }
+
+    private void commit(String segment, List<ReportColdStore.Entry> entries, List<ArchiveCandidate> candidates) {
+        OffsetDateTime archivedAt = OffsetDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (ReportColdStore.Entry entry : entries) {
+                repository.markArchived(entry.reportId(), segment, entry.offset(), entry.length(), archivedAt);
+            }
+        });
+        for (ReportColdStore.Entry entry : entries) {
+            archivedCounter.increment();
+            originalBytes.increment(entry.size());
+            compressedBytes.increment(entry.length());
+        }
+        for (ArchiveCandidate candidate : candidates) {
+            try {
+                Files.deleteIfExists(Paths.get(candidate.storageUrl()));
+            } catch (IOException ex) {
+                logger.warn("Archived report {} but could not delete {}", candidate.reportId(), candidate.storageUrl(), ex);
+            }
+        }
+        logger.info("Archived {} reports into segment {}", entries.size(), segment);
+    }
+
+    private static boolean tryLock(Statement statement) throws SQLException {
+        try (ResultSet result = statement.executeQuery("SELECT pg_try_advisory_lock(" + LOCK_KEY + ")")) {
+            return result.next() && result.getBoolean(1);
+        }
+    }
+}
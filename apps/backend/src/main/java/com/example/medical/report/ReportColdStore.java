@@ -0,0 +1,197 @@
+package com.example.medical.report;
+
+import com.example.medical.common.UuidV7Generator;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cold tier for report files. Files are packed into append-only segment files, each one a
+ * sequence of independent gzip members, so a single file is read back with one seek and
+ * one bounded sequential read. Every segment has a {@code .idx} companion listing the report,
+ * offset, compressed length and original size of each member; the database holds the same
+ * location, and the index lets a segment be verified or re-linked on its own.
+ */
+@Component
+public class ReportColdStore {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private final Path directory;
+
+    public ReportColdStore(@Value("${app.archive.reports.dir:archive/reports}") String directory) throws IOException {
+        this.directory = Paths.get(directory);
+        Files.createDirectories(this.directory);
+    }
+
+    SegmentWriter newSegment() throws IOException {
+        return new SegmentWriter(UuidV7Generator.next().toString());
+    }
+
+    /** Decompressed contents of one archived file. */
+    public InputStream open(String segment, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ);
+        try {
+            channel.position(offset);
+            return new GZIPInputStream(new BoundedInputStream(Channels.newInputStream(channel), length), 64 * 1024);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    private Path segmentPath(String segment) {
+        return directory.resolve(segment + SEGMENT_SUFFIX);
+    }
+
+    record Entry(UUID reportId, long offset, long length, long size) {
+    }
+
+    /** Appends files to a new segment; nothing in it is referenced until {@link #seal()} returns. */
+    final class SegmentWriter implements Closeable {
+
+        private final String name;
+        private final FileChannel channel;
+        private final List<Entry> entries = new ArrayList<>();
+
+        private SegmentWriter(String name) throws IOException {
+            this.name = name;
+            this.channel = FileChannel.open(segmentPath(name), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        }
+
+        String name() {
+            return name;
+        }
+
+        long size() throws IOException {
+            return channel.position();
+        }
+
+        boolean isEmpty() {
+            return entries.isEmpty();
+        }
+
+        Entry append(UUID reportId, Path file) throws IOException {
+            long offset = channel.position();
+            long size;
+            // Closing the gzip stream releases its deflater but must leave the channel open
+            try (GZIPOutputStream gzip = new GZIPOutputStream(
+                    new NonClosingOutputStream(Channels.newOutputStream(channel)), 64 * 1024)) {
+                size = Files.copy(file, gzip);
+            }
+            Entry entry = new Entry(reportId, offset, channel.position() - offset, size);
+            entries.add(entry);
+            return entry;
+        }
+
+        /** Forces the segment to disk and writes its index; returns the entries now durable. */
+        List<Entry> seal() throws IOException {
+            channel.force(true);
+            Path index = directory.resolve(name + INDEX_SUFFIX);
+            Path temp = directory.resolve(name + INDEX_SUFFIX + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write("# report_id offset length size\n");
+                for (Entry entry : entries) {
+                    writer.write(entry.reportId() + " " + entry.offset() + " " + entry.length() + " " + entry.size() + "\n");
+                }
+            }
+            try (FileChannel indexChannel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                indexChannel.force(true);
+            }
+            Files.move(temp, index, StandardCopyOption.ATOMIC_MOVE);
+            return List.copyOf(entries);
+        }
+
+        /** Closes the segment, deleting it if nothing was appended. */
+        @Override
+        public void close() throws IOException {
+            channel.close();
+            if (entries.isEmpty()) {
+                Files.deleteIfExists(segmentPath(name));
+            }
+        }
+    }
+
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    private static final class BoundedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = in.read(b, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.example.medical.report;
 
-import com.example.medical.doctor.Doctor;
-import com.example.medical.doctor.DoctorRepository;
+import com.example.medical.cache.ReferenceCache;
+import com.example.medical.exception.NotFoundException;
 import com.example.medical.security.JwtAuthenticationDetails;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -31,15 +36,18 @@ public class ReportController {
 
     private final MedicalReportService reportService;
     private final MedicalReportRepository reportRepository;
-    private final DoctorRepository doctorRepository;
+    private final ReferenceCache referenceCache;
+    private final ReportColdStore coldStore;
     private static final String UPLOAD_DIR = "uploads/reports/";
 
     public ReportController(MedicalReportService reportService, 
                             MedicalReportRepository reportRepository,
-                            DoctorRepository doctorRepository) {
+                            ReferenceCache referenceCache,
+                            ReportColdStore coldStore) {
         this.reportService = reportService;
         this.reportRepository = reportRepository;
-        this.doctorRepository = doctorRepository;
+        this.referenceCache = referenceCache;
+        this.coldStore = coldStore;
         
         // Create upload directory if it doesn't exist
         try {
@@ -80,8 +88,10 @@ public class ReportController {
                  return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "User email not found in token"));
             }
 
-            Doctor doctor = doctorRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Current user is not a registered doctor. Please contact admin."));
+            UUID doctorId = referenceCache.doctorIdByEmail(email);
+            if (doctorId == null) {
+                throw new RuntimeException("Current user is not a registered doctor. Please contact admin.");
+            }
 
             UUID patientId = UUID.fromString(patientIdStr);
 
@@ -106,7 +116,7 @@ public class ReportController {
             report.setReportDate(java.time.LocalDate.now());
 
             // Use service to create report (handles relationships and kafka)
-            MedicalReport savedReport = reportService.create(patientId, doctor.getId(), report);
+            MedicalReport savedReport = reportService.create(patientId, doctorId, report);
 
             // Return response
             Map<String, Object> response = new HashMap<>();
@@ -156,6 +166,31 @@ public class ReportController {
             .orElse(ResponseEntity.notFound().build());
     }
 
+    /** Serves the report file from hot storage, or transparently from its archive segment. */
+    @GetMapping("/{id}/file")
+    public ResponseEntity<Resource> downloadReport(@PathVariable UUID id) throws IOException {
+        MedicalReport report = reportService.get(id);
+        String filename = Paths.get(report.getStorageUrl()).getFileName().toString();
+        Resource body;
+        if (report.getArchivedAt() != null) {
+            if (report.getArchiveSegment() == null) {
+                throw new NotFoundException("Report file not found");
+            }
+            body = new InputStreamResource(coldStore.open(report.getArchiveSegment(), report.getArchiveOffset(),
+                report.getArchiveLength()));
+        } else {
+            Path path = Paths.get(report.getStorageUrl());
+            if (!Files.exists(path)) {
+                throw new NotFoundException("Report file not found");
+            }
+            body = new FileSystemResource(path);
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+            .body(body);
+    }
+
     @GetMapping("/patient/{patientId}")
     public ResponseEntity<Map<String, Object>> getPatientReports(
             @PathVariable UUID patientId,
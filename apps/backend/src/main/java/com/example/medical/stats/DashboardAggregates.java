@@ -0,0 +1,101 @@
+package com.example.medical.stats;
+
+import com.example.medical.cdc.StatusTransition;
+import com.example.medical.cdc.StatusTransitionListener;
+import com.example.medical.common.EmergencyAccessStatus;
+import com.example.medical.common.PatientStatus;
+import com.example.medical.common.PrescriptionStatus;
+import com.example.medical.common.ReportStatus;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory dashboard counts per entity status. Commits on this node adjust them as they
+ * happen; a periodic reconciliation against the database picks up changes made on other nodes
+ * or outside the application and corrects any drift. Commits racing a reconciliation can be
+ * counted twice, so the counts may be off by the transitions of one interval; they are for
+ * display, not for decisions that need exact numbers.
+ */
+@Component
+public class DashboardAggregates implements StatusTransitionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardAggregates.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, StatusCounters<?>> countersByEntity;
+    private final StatusCounters<PatientStatus> patients = new StatusCounters<>(PatientStatus.class, "patients");
+    private final StatusCounters<ReportStatus> reports = new StatusCounters<>(ReportStatus.class, "medical_reports");
+    private final StatusCounters<PrescriptionStatus> prescriptions =
+        new StatusCounters<>(PrescriptionStatus.class, "prescriptions");
+    private final StatusCounters<EmergencyAccessStatus> emergencyAccess =
+        new StatusCounters<>(EmergencyAccessStatus.class, "emergency_access");
+    private final DistributionSummary driftSummary;
+    private volatile OffsetDateTime reconciledAt;
+
+    public DashboardAggregates(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Keyed by the @ChangeTracked names of the entities
+        this.countersByEntity = Map.of(
+            "patient", patients,
+            "medical_report", reports,
+            "prescription", prescriptions,
+            "emergency_access", emergencyAccess);
+        this.driftSummary = DistributionSummary.builder("medical.stats.reconcile.drift")
+            .description("Total correction applied to the dashboard counters per reconciliation")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void onStatusTransitions(List<StatusTransition> transitions) {
+        for (StatusTransition transition : transitions) {
+            StatusCounters<?> counters = countersByEntity.get(transition.entityType());
+            if (counters != null) {
+                counters.transition(transition.from(), transition.to());
+            }
+        }
+    }
+
+    public StatsSummary summary() {
+        return new StatsSummary(patients.summary(), reports.summary(), prescriptions.summary(),
+            emergencyAccess.summary(), reconciledAt);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval-ms:60000}",
+        initialDelayString = "${app.stats.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        try {
+            long drift = reconcile(patients) + reconcile(reports) + reconcile(prescriptions) + reconcile(emergencyAccess);
+            driftSummary.record(drift);
+            logger.debug("Dashboard counters reconciled, corrected by {}", drift);
+            reconciledAt = OffsetDateTime.now();
+        } catch (RuntimeException ex) {
+            logger.warn("Dashboard counter reconciliation failed", ex);
+        }
+    }
+
+    private <E extends Enum<E>> long reconcile(StatusCounters<E> counters) {
+        Map<E, Long> before = counters.snapshot();
+        Map<E, Long> actual = new EnumMap<>(counters.statusType());
+        jdbcTemplate.query("SELECT status, count(*) FROM " + counters.table() + " GROUP BY status",
+            row -> {
+                actual.put(Enum.valueOf(counters.statusType(), row.getString(1)), row.getLong(2));
+            });
+        return counters.reconcile(actual, before);
+    }
+}
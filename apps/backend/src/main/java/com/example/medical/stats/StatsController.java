@@ -0,0 +1,22 @@
+package com.example.medical.stats;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/stats")
+public class StatsController {
+
+    private final DashboardAggregates aggregates;
+
+    public StatsController(DashboardAggregates aggregates) {
+        this.aggregates = aggregates;
+    }
+
+    /** Served from memory; counts are at most one reconciliation interval behind other nodes. */
+    @GetMapping("/summary")
+    public StatsSummary summary() {
+        return aggregates.summary();
+    }
+}
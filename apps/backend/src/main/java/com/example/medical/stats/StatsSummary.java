@@ -0,0 +1,14 @@
+package com.example.medical.stats;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+public record StatsSummary(StatusCounts patients,
+                           StatusCounts reports,
+                           StatusCounts prescriptions,
+                           StatusCounts emergencyAccess,
+                           OffsetDateTime reconciledAt) {
+
+    public record StatusCounts(long total, Map<String, Long> byStatus) {
+    }
+}
@@ -0,0 +1,18 @@
+-- Tables of the transactional outbox and the consumer dedupe log. They are newer than the
+-- schema Hibernate generated, so databases baselined at V1 do not have them yet; IF NOT EXISTS
+-- keeps this safe where a later ddl-auto run already created them. Runs before V2 indexes them.
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id          uuid                        NOT NULL PRIMARY KEY,
+    created_at  timestamp(6) with time zone NOT NULL,
+    updated_at  timestamp(6) with time zone NOT NULL,
+    topic       varchar(255)                NOT NULL,
+    message_key varchar(255)                NOT NULL,
+    event_type  varchar(255)                NOT NULL,
+    payload     text                        NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS processed_events (
+    event_id     uuid                        NOT NULL PRIMARY KEY,
+    processed_at timestamp(6) with time zone NOT NULL
+);
@@ -0,0 +1,92 @@
+-- Schema as previously generated by Hibernate from the entities. Databases that were created
+-- that way are baselined at this version (spring.flyway.baseline-on-migrate) and skip it.
+
+CREATE TABLE users (
+    id            uuid                        NOT NULL PRIMARY KEY,
+    created_at    timestamp(6) with time zone NOT NULL,
+    updated_at    timestamp(6) with time zone NOT NULL,
+    email         varchar(255)                NOT NULL UNIQUE,
+    password_hash varchar(255)                NOT NULL,
+    role          varchar(255)                NOT NULL CHECK (role IN ('ADMIN', 'CLINICIAN', 'AUDITOR')),
+    status        varchar(255)                NOT NULL CHECK (status IN ('ACTIVE', 'INACTIVE', 'SUSPENDED'))
+);
+
+CREATE TABLE patients (
+    id         uuid                        NOT NULL PRIMARY KEY,
+    created_at timestamp(6) with time zone NOT NULL,
+    updated_at timestamp(6) with time zone NOT NULL,
+    first_name varchar(255)                NOT NULL,
+    last_name  varchar(255)                NOT NULL,
+    dob        date                        NOT NULL,
+    gender     varchar(255)                NOT NULL CHECK (gender IN ('MALE', 'FEMALE', 'OTHER')),
+    email      varchar(255),
+    phone      varchar(255),
+    status     varchar(255)                NOT NULL CHECK (status IN ('ACTIVE', 'INACTIVE', 'DECEASED'))
+);
+
+CREATE TABLE doctors (
+    id         uuid                        NOT NULL PRIMARY KEY,
+    created_at timestamp(6) with time zone NOT NULL,
+    updated_at timestamp(6) with time zone NOT NULL,
+    first_name varchar(255)                NOT NULL,
+    last_name  varchar(255)                NOT NULL,
+    email      varchar(255)                NOT NULL UNIQUE,
+    phone      varchar(255),
+    specialty  varchar(255),
+    status     varchar(255)                NOT NULL CHECK (status IN ('ACTIVE', 'SUSPENDED', 'RETIRED'))
+);
+
+CREATE TABLE medical_reports (
+    id          uuid                        NOT NULL PRIMARY KEY,
+    created_at  timestamp(6) with time zone NOT NULL,
+    updated_at  timestamp(6) with time zone NOT NULL,
+    patient_id  uuid                        NOT NULL REFERENCES patients (id),
+    doctor_id   uuid                        NOT NULL REFERENCES doctors (id),
+    title       varchar(255)                NOT NULL,
+    report_type varchar(255)                NOT NULL,
+    storage_url varchar(255)                NOT NULL,
+    summary     varchar(255),
+    status      varchar(255)                NOT NULL CHECK (status IN ('PROCESSING', 'READY', 'ERROR')),
+    report_date date                        NOT NULL
+);
+
+CREATE TABLE prescriptions (
+    id         uuid                        NOT NULL PRIMARY KEY,
+    created_at timestamp(6) with time zone NOT NULL,
+    updated_at timestamp(6) with time zone NOT NULL,
+    patient_id uuid                        NOT NULL REFERENCES patients (id),
+    doctor_id  uuid                        NOT NULL REFERENCES doctors (id),
+    drug_name  varchar(255)                NOT NULL,
+    dosage     varchar(255)                NOT NULL,
+    frequency  varchar(255)                NOT NULL,
+    route      varchar(255),
+    start_date date                        NOT NULL,
+    end_date   date,
+    status     varchar(255)                NOT NULL CHECK (status IN ('ACTIVE', 'COMPLETED', 'CANCELLED'))
+);
+
+CREATE TABLE emergency_access (
+    id                    uuid                        NOT NULL PRIMARY KEY,
+    created_at            timestamp(6) with time zone NOT NULL,
+    updated_at            timestamp(6) with time zone NOT NULL,
+    patient_id            uuid                        NOT NULL REFERENCES patients (id),
+    requester_name        varchar(255)                NOT NULL,
+    reason                varchar(255)                NOT NULL,
+    approved_by_doctor_id uuid REFERENCES doctors (id),
+    expires_at            timestamp(6) with time zone NOT NULL,
+    status                varchar(255)                NOT NULL CHECK (status IN ('PENDING', 'APPROVED', 'DENIED', 'EXPIRED')),
+    notes                 varchar(255)
+);
+
+CREATE TABLE ai_request_logs (
+    id               uuid                        NOT NULL PRIMARY KEY,
+    created_at       timestamp(6) with time zone NOT NULL,
+    updated_at       timestamp(6) with time zone NOT NULL,
+    patient_id       uuid REFERENCES patients (id),
+    report_id        uuid REFERENCES medical_reports (id),
+    request_type     varchar(255)                NOT NULL,
+    payload_hash     varchar(255),
+    response_summary varchar(255),
+    status           varchar(255)                NOT NULL,
+    model_version    varchar(255)
+);
@@ -0,0 +1,40 @@
+-- Built CONCURRENTLY so deploying against a live database never blocks writes. Flyway runs
+-- this migration outside a transaction, one statement at a time. A failed concurrent build
+-- leaves an INVALID index behind; drop it by hand before re-running, since IF NOT EXISTS
+-- would otherwise skip it.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_patients_status ON patients (status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_patients_email ON patients (email);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_patients_created_at ON patients (created_at DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_doctors_specialty ON doctors (specialty);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_doctors_status ON doctors (status);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reports_patient_id ON medical_reports (patient_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reports_doctor_id ON medical_reports (doctor_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reports_report_date ON medical_reports (report_date DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reports_status ON medical_reports (status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reports_report_type ON medical_reports (report_type);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_prescriptions_patient_id ON prescriptions (patient_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_prescriptions_doctor_id ON prescriptions (doctor_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_prescriptions_status ON prescriptions (status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_prescriptions_start_date ON prescriptions (start_date DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_prescriptions_drug_name ON prescriptions (drug_name);
+
+-- findByPatientIdAndStatus
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_emergency_patient_status ON emergency_access (patient_id, status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_emergency_expires_at ON emergency_access (expires_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_emergency_approver ON emergency_access (approved_by_doctor_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_role ON users (role);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_status ON users (status);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ai_logs_patient_id ON ai_request_logs (patient_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ai_logs_report_id ON ai_request_logs (report_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ai_logs_request_type ON ai_request_logs (request_type);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ai_logs_created_at ON ai_request_logs (created_at DESC);
+
+-- Outbox relay claims the oldest rows; dedupe pruning deletes by age
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_outbox_events_created_at ON outbox_events (created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_processed_events_processed_at ON processed_events (processed_at);
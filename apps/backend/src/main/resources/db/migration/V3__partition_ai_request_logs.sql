@@ -0,0 +1,58 @@
+-- Range-partition ai_request_logs by created_at into daily UTC partitions named
+-- ai_request_logs_pYYYYMMDD. Rows written before this migration go to a single history
+-- partition. AIRequestLogPartitionManager creates future partitions and drops expired ones.
+-- The primary key has to include the partition key, so it becomes (id, created_at).
+
+ALTER TABLE ai_request_logs RENAME TO ai_request_logs_legacy;
+ALTER TABLE ai_request_logs_legacy RENAME CONSTRAINT ai_request_logs_pkey TO ai_request_logs_legacy_pkey;
+DROP INDEX IF EXISTS idx_ai_logs_patient_id;
+DROP INDEX IF EXISTS idx_ai_logs_report_id;
+DROP INDEX IF EXISTS idx_ai_logs_request_type;
+DROP INDEX IF EXISTS idx_ai_logs_created_at;
+
+CREATE TABLE ai_request_logs (
+    id               uuid                        NOT NULL,
+    created_at       timestamp(6) with time zone NOT NULL,
+    updated_at       timestamp(6) with time zone NOT NULL,
+    patient_id       uuid REFERENCES patients (id),
+    report_id        uuid REFERENCES medical_reports (id),
+    request_type     varchar(255)                NOT NULL,
+    payload_hash     varchar(255),
+    response_summary varchar(255),
+    status           varchar(255)                NOT NULL,
+    model_version    varchar(255),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_ai_logs_patient_id ON ai_request_logs (patient_id);
+CREATE INDEX idx_ai_logs_report_id ON ai_request_logs (report_id);
+CREATE INDEX idx_ai_logs_request_type ON ai_request_logs (request_type, created_at);
+CREATE INDEX idx_ai_logs_created_at ON ai_request_logs (created_at);
+
+DO $$
+DECLARE
+    today date := (now() AT TIME ZONE 'UTC')::date;
+    day   date;
+BEGIN
+    EXECUTE format('CREATE TABLE ai_request_logs_history PARTITION OF ai_request_logs '
+                   'FOR VALUES FROM (MINVALUE) TO (%L)', today::text || ' 00:00:00+00');
+    FOR i IN 0..7 LOOP
+        day := today + i;
+        EXECUTE format('CREATE TABLE %I PARTITION OF ai_request_logs FOR VALUES FROM (%L) TO (%L)',
+                       'ai_request_logs_p' || to_char(day, 'YYYYMMDD'),
+                       day::text || ' 00:00:00+00', (day + 1)::text || ' 00:00:00+00');
+    END LOOP;
+END
+$$;
+
+-- Catches rows outside every daily partition (a skewed clock, or the manager falling behind)
+-- so inserts never fail. It should stay empty: a day whose rows landed here cannot get its
+-- own partition until they are moved out.
+CREATE TABLE ai_request_logs_default PARTITION OF ai_request_logs DEFAULT;
+
+INSERT INTO ai_request_logs
+SELECT id, created_at, updated_at, patient_id, report_id, request_type, payload_hash,
+       response_summary, status, model_version
+FROM ai_request_logs_legacy;
+
+DROP TABLE ai_request_logs_legacy;
@@ -0,0 +1,7 @@
+-- Location of a report's file once ReportArchiver has moved it into a cold-tier segment.
+-- Nullable without defaults, so adding them does not rewrite the table.
+ALTER TABLE medical_reports
+    ADD COLUMN archived_at     timestamp(6) with time zone,
+    ADD COLUMN archive_segment varchar(255),
+    ADD COLUMN archive_offset  bigint,
+    ADD COLUMN archive_length  bigint;
@@ -0,0 +1,5 @@
+-- Archival candidate selection scans reports still on hot storage in created_at order. The
+-- partial index stays sized to that working set as archived reports accumulate.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reports_archive_candidates ON medical_reports (created_at)
+    WHERE archived_at IS NULL;
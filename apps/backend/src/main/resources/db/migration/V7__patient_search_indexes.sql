@@ -0,0 +1,19 @@
+-- Indexes behind GET /patients/search. The expressions must match PatientSearch exactly.
+
+-- Prefix matches on the last name or on "first last"
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_patients_last_name_prefix
+    ON patients (lower(last_name) text_pattern_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_patients_full_name_prefix
+    ON patients (lower(first_name || ' ' || last_name) text_pattern_ops);
+
+-- Fuzzy matches (typos, transposed letters) through the <% word-similarity operator
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_patients_full_name_trgm
+    ON patients USING gin (lower(first_name || ' ' || last_name) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_patients_dob ON patients (dob);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_patients_phone_digits
+    ON patients (regexp_replace(phone, '[^0-9]', '', 'g'));
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_patients_email_lower ON patients (lower(email));
+
+-- Superseded by idx_patients_email_lower; searches normalize case
+DROP INDEX CONCURRENTLY IF EXISTS idx_patients_email;
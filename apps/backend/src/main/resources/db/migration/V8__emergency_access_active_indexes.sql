@@ -0,0 +1,10 @@
+-- Indexes over approved grants only. EmergencyAccessExpiry moves grants to EXPIRED at their
+-- deadline, so these stay sized to the grants that are live right now.
+
+-- Expiry sweeps and the wheel's seed query
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_emergency_approved_expiry
+    ON emergency_access (expires_at) WHERE status = 'APPROVED';
+
+-- Active grants per patient; requester_name is included so existence checks are index-only
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_emergency_approved_patient
+    ON emergency_access (patient_id, expires_at) INCLUDE (requester_name) WHERE status = 'APPROVED';
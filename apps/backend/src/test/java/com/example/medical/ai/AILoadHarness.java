@@ -0,0 +1,170 @@
+package com.example.medical.ai;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for the backend AI endpoints.
+ * <p>
+ * Requests are issued on a fixed schedule at the target rate regardless of how fast the
+ * backend answers, and latency is measured from each request's scheduled start so that a
+ * stalled backend shows up in the tail instead of silently lowering the offered load.
+ * Configure with system properties:
+ * <ul>
+ *   <li>{@code load.target} backend base URL (default {@code http://localhost:8080})</li>
+ *   <li>{@code load.token} bearer token for the backend</li>
+ *   <li>{@code load.rps} target requests per second (default 50)</li>
+ *   <li>{@code load.duration} measured seconds (default 30), after {@code load.warmup} seconds (default 5)</li>
+ *   <li>{@code load.mix} weighted endpoint mix, e.g. {@code chat:2,predict:1,analyze:1}</li>
+ *   <li>{@code load.stub} also start an {@link AIServiceStub} on {@code stub.port} (default false)</li>
+ * </ul>
+ */
+public class AILoadHarness {
+
+    private final HttpClient client;
+    private final String target;
+    private final String token;
+    private final List<String> schedule;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    public AILoadHarness(String target, String token, Map<String, Integer> mix) {
+        this.client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        this.target = target;
+        this.token = token;
+        this.schedule = new ArrayList<>();
+        mix.forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                schedule.add(endpoint);
+            }
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        AIServiceStub stub = null;
+        if (Boolean.getBoolean("load.stub")) {
+            stub = AIServiceStub.create(Integer.getInteger("stub.port", 8000)).start();
+            System.out.println("Started ai-service stub on " + stub.baseUrl());
+        }
+        try {
+            AILoadHarness harness = new AILoadHarness(
+                System.getProperty("load.target", "http://localhost:8080"),
+                System.getProperty("load.token", ""),
+                parseMix(System.getProperty("load.mix", "chat:1,predict:1,analyze:1")));
+            int rps = Integer.getInteger("load.rps", 50);
+            harness.run(rps, Duration.ofSeconds(Integer.getInteger("load.warmup", 5)), false);
+            Result result = harness.run(rps, Duration.ofSeconds(Integer.getInteger("load.duration", 30)), true);
+            System.out.println(result.format());
+        } finally {
+            if (stub != null) {
+                stub.close();
+            }
+        }
+    }
+
+    public Result run(int rps, Duration duration, boolean record) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+        long total = duration.toSeconds() * rps;
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long scheduledAt = start + i * intervalNanos;
+                long wait = scheduledAt - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                String endpoint = schedule.get((int) (i % schedule.size()));
+                executor.execute(() -> send(endpoint, scheduledAt, record));
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        return new Result(rps, elapsedNanos, histogram, new TreeMap<>(outcomes));
+    }
+
+    private void send(String endpoint, long scheduledAt, boolean record) {
+        String outcome;
+        try {
+            HttpResponse<Void> response = client.send(request(endpoint), HttpResponse.BodyHandlers.discarding());
+            outcome = endpoint + " " + response.statusCode();
+        } catch (Exception ex) {
+            outcome = endpoint + " " + ex.getClass().getSimpleName();
+        }
+        if (record) {
+            histogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledAt));
+            outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+        }
+    }
+
+    private HttpRequest request(String endpoint) {
+        String path;
+        String body;
+        switch (endpoint) {
+            case "analyze" -> {
+                path = "/ai/analyze-report";
+                body = "{\"reportId\":\"" + UUID.randomUUID() + "\"}";
+            }
+            case "predict" -> {
+                path = "/ai/predict/symptoms";
+                body = "{\"symptoms\":[\"fever\",\"cough\"],\"demographics\":{\"age\":42}}";
+            }
+            case "chat" -> {
+                path = "/ai/chat";
+                body = "{\"message\":\"What does a glucose of 120 mg/dL mean?\"}";
+            }
+            default -> throw new IllegalArgumentException("Unknown endpoint in load.mix: " + endpoint);
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (!token.isBlank()) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new TreeMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            weights.put(pair[0], pair.length > 1 ? Integer.parseInt(pair[1]) : 1);
+        }
+        return weights;
+    }
+
+    public record Result(int targetRps, long elapsedNanos, LatencyHistogram histogram, Map<String, LongAdder> outcomes) {
+
+        public double throughput() {
+            return histogram.count() / (elapsedNanos / 1e9);
+        }
+
+        public String format() {
+            StringBuilder out = new StringBuilder()
+                .append(String.format("target=%d rps  achieved=%.1f rps  requests=%d%n",
+                    targetRps, throughput(), histogram.count()))
+                .append(String.format("p50=%.1fms  p99=%.1fms  p999=%.1fms%n",
+                    histogram.percentileMicros(0.50) / 1000.0,
+                    histogram.percentileMicros(0.99) / 1000.0,
+                    histogram.percentileMicros(0.999) / 1000.0));
+            outcomes.forEach((outcome, count) -> out.append(String.format("  %-28s %d%n", outcome, count.sum())));
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.medical.ai;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Embedded stand-in for the Python ai-service.
+ * <p>
+ * Serves {@code /ocr/analyze-report}, {@code /predict/symptoms} and {@code /chat} with the same
+ * response shapes as {@code apps/ai-service/app/main.py}. Each endpoint has its own latency
+ * distribution, error rate and response size, all of which can be changed while the stub is
+ * running to simulate a model swap or a degraded service.
+ * <pre>
+ * AIServiceStub stub = AIServiceStub.create(8000)
+ *     .endpoint("/chat", e -> e.latency(LatencyDistribution.logNormal(120, 0.5)).errorRate(0.01))
+ *     .start();
+ * </pre>
+ * Run {@link #main} to start it standalone and point {@code ai.service.base-url} at it.
+ */
+public class AIServiceStub implements AutoCloseable {
+
+    public static final String ANALYZE_REPORT = "/ocr/analyze-report";
+    public static final String PREDICT_SYMPTOMS = "/predict/symptoms";
+    public static final String CHAT = "/chat";
+
+    private final int port;
+    private final Map<String, EndpointBehavior> endpoints = new ConcurrentHashMap<>();
+    private HttpServer server;
+
+    private AIServiceStub(int port) {
+        this.port = port;
+        endpoints.put(ANALYZE_REPORT, new EndpointBehavior().latency(LatencyDistribution.logNormal(400, 0.4)).responseBytes(4096));
+        endpoints.put(PREDICT_SYMPTOMS, new EndpointBehavior().latency(LatencyDistribution.logNormal(80, 0.3)).responseBytes(1024));
+        endpoints.put(CHAT, new EndpointBehavior().latency(LatencyDistribution.logNormal(250, 0.5)).responseBytes(2048));
+    }
+
+    /** Port 0 picks a free port; read it back with {@link #port()} after {@link #start()}. */
+    public static AIServiceStub create(int port) {
+        return new AIServiceStub(port);
+    }
+
+    public AIServiceStub endpoint(String path, Consumer<EndpointBehavior> configurer) {
+        configurer.accept(behavior(path));
+        return this;
+    }
+
+    public EndpointBehavior behavior(String path) {
+        EndpointBehavior behavior = endpoints.get(path);
+        if (behavior == null) {
+            throw new IllegalArgumentException("Unknown ai-service endpoint: " + path);
+        }
+        return behavior;
+    }
+
+    public AIServiceStub start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        endpoints.forEach((path, behavior) -> server.createContext(path, exchange -> handle(path, behavior, exchange)));
+        server.createContext("/health", exchange -> respond(exchange, 200, "{\"status\":\"ok\"}"));
+        server.start();
+        return this;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + port();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    private void handle(String path, EndpointBehavior behavior, HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+        }
+        behavior.requests.increment();
+        try {
+            Thread.sleep(Math.max(0, behavior.latency.sampleMillis()));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, "{\"detail\":\"interrupted\"}");
+            return;
+        }
+        if (ThreadLocalRandom.current().nextDouble() < behavior.errorRate) {
+            behavior.errors.increment();
+            respond(exchange, behavior.errorStatus, "{\"detail\":\"stub failure\"}");
+            return;
+        }
+        respond(exchange, 200, responseBody(path, behavior.responseBytes));
+    }
+
+    private static String responseBody(String path, int targetBytes) {
+        String template = switch (path) {
+            case ANALYZE_REPORT -> "{\"report_id\":\"stub\",\"ocr_text\":\"%s\",\"entities\":["
+                + "{\"type\":\"TEST\",\"text\":\"Glucose\",\"value\":\"120\",\"unit\":\"mg/dL\"},"
+                + "{\"type\":\"IMPRESSION\",\"text\":\"Normal findings\"}],"
+                + "\"model_version\":\"stub\",\"timestamp\":\"" + Instant.now() + "\"}";
+            case PREDICT_SYMPTOMS -> "{\"conditions\":[{\"name\":\"Common cold\",\"confidence\":0.72}],"
+                + "\"recommendations\":[\"%s\"],\"urgency\":\"non-urgent\",\"urgencyDescription\":\"\","
+                + "\"model_version\":\"stub\",\"timestamp\":\"" + Instant.now() + "\"}";
+            default -> "{\"answer\":\"%s\",\"citations\":[],\"safety_banner\":\"Not a diagnosis.\","
+                + "\"model_version\":\"stub\"}";
+        };
+        int padding = Math.max(0, targetBytes - (template.length() - 2));
+        return template.formatted("x".repeat(padding));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("stub.port", 8000);
+        AIServiceStub stub = create(port).start();
+        System.out.println("ai-service stub listening on " + stub.baseUrl());
+    }
+
+    public static final class EndpointBehavior {
+
+        private volatile LatencyDistribution latency = LatencyDistribution.fixed(0);
+        private volatile double errorRate;
+        private volatile int errorStatus = 500;
+        private volatile int responseBytes = 512;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        public EndpointBehavior latency(LatencyDistribution latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        public EndpointBehavior errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        public EndpointBehavior errorStatus(int errorStatus) {
+            this.errorStatus = errorStatus;
+            return this;
+        }
+
+        public EndpointBehavior responseBytes(int responseBytes) {
+            this.responseBytes = responseBytes;
+            return this;
+        }
+
+        public long requestCount() {
+            return requests.sum();
+        }
+
+        public long errorCount() {
+            return errors.sum();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.medical.ai;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latency model for {@link AIServiceStub} endpoints, in milliseconds.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    long sampleMillis();
+
+    static LatencyDistribution fixed(long millis) {
+        return () -> millis;
+    }
+
+    static LatencyDistribution uniform(long minMillis, long maxMillis) {
+        return () -> ThreadLocalRandom.current().nextLong(minMillis, maxMillis + 1);
+    }
+
+    /**
+     * Long-tailed latency typical of model inference: most calls land near the median,
+     * a few take many times longer. {@code sigma} around 0.5 gives a p99 of ~3x the median.
+     */
+    static LatencyDistribution logNormal(long medianMillis, double sigma) {
+        return () -> Math.round(medianMillis * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    /** Mostly {@code base}, but {@code spikeRate} of calls take {@code spike} instead. */
+    static LatencyDistribution withSpikes(LatencyDistribution base, double spikeRate, LatencyDistribution spike) {
+        return () -> ThreadLocalRandom.current().nextDouble() < spikeRate ? spike.sampleMillis() : base.sampleMillis();
+    }
+}
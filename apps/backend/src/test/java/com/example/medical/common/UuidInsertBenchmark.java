@@ -0,0 +1,83 @@
+package com.example.medical.common;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compares insert throughput and primary key index size for random v4 ids against
+ * {@link UuidV7Generator} ids on a real Postgres. Creates and drops its own tables.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.medical.common.UuidInsertBenchmark} and optionally
+ * {@code -Dbench.jdbc-url=... -Dbench.user=... -Dbench.password=... -Dbench.rows=2000000
+ * -Dbench.batch=1000}.
+ */
+public final class UuidInsertBenchmark {
+
+    private UuidInsertBenchmark() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        String url = System.getProperty("bench.jdbc-url", "jdbc:postgresql://localhost:5432/medical");
+        String user = System.getProperty("bench.user", "medical_user");
+        String password = System.getProperty("bench.password", "change_me");
+        int rows = Integer.getInteger("bench.rows", 1_000_000);
+        int batch = Integer.getInteger("bench.batch", 1_000);
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            connection.setAutoCommit(false);
+            run(connection, "uuid_bench_v4", UUID::randomUUID, rows, batch);
+            run(connection, "uuid_bench_v7", UuidV7Generator::next, rows, batch);
+        }
+    }
+
+    private static void run(Connection connection, String table, Supplier<UUID> ids, int rows, int batch)
+            throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS " + table);
+            ddl.execute("CREATE TABLE " + table + " (id uuid PRIMARY KEY, created_at timestamptz NOT NULL, "
+                + "payload text NOT NULL)");
+        }
+        connection.commit();
+
+        long start = System.nanoTime();
+        long slowestBatchNanos = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (id, created_at, payload) VALUES (?, now(), ?)")) {
+            for (int done = 0; done < rows; ) {
+                long batchStart = System.nanoTime();
+                int size = Math.min(batch, rows - done);
+                for (int i = 0; i < size; i++) {
+                    insert.setObject(1, ids.get());
+                    insert.setString(2, "row " + (done + i));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                connection.commit();
+                done += size;
+                slowestBatchNanos = Math.max(slowestBatchNanos, System.nanoTime() - batchStart);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        try (Statement stats = connection.createStatement();
+             ResultSet result = stats.executeQuery("SELECT pg_relation_size('" + table + "_pkey'), "
+                 + "pg_relation_size('" + table + "')")) {
+            result.next();
+            System.out.printf("%s: %,d rows in %.1f s (%,.0f rows/s), slowest batch %.1f ms, "
+                    + "pkey index %,d KB, heap %,d KB%n",
+                table, rows, seconds, rows / seconds, slowestBatchNanos / 1e6,
+                result.getLong(1) / 1024, result.getLong(2) / 1024);
+        }
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE " + table);
+        }
+        connection.commit();
+    }
+}
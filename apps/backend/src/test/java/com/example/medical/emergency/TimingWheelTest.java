@@ -0,0 +1,111 @@
+package com.example.medical.emergency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+    private static final long TICK_MS = 1000;
+    private static final long START_MS = 1_800_000_000_000L;
+
+    private final TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, START_MS);
+    private final List<String> fired = new ArrayList<>();
+
+    @Test
+    void firesAtTheFirstTickAtOrAfterTheDeadline() {
+        wheel.add("grant", START_MS + 2500);
+
+        advanceTo(START_MS + 2999);
+        assertThat(fired).isEmpty();
+
+        advanceTo(START_MS + 3000);
+        assertThat(fired).containsExactly("grant");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextTick() {
+        advanceTo(START_MS + 10_000);
+        wheel.add("overdue", START_MS);
+
+        advanceTo(START_MS + 11_000);
+        assertThat(fired).containsExactly("overdue");
+    }
+
+    @Test
+    void cascadesFromCoarserLevels() {
+        // Beyond 64 and 64^2 ticks, so the entries start on levels 1 and 2
+        long level1 = START_MS + 100 * TICK_MS;
+        long level2 = START_MS + 5_000 * TICK_MS;
+        wheel.add("level1", level1);
+        wheel.add("level2", level2);
+
+        advanceTo(level1 - TICK_MS);
+        assertThat(fired).isEmpty();
+        advanceTo(level1);
+        assertThat(fired).containsExactly("level1");
+
+        advanceTo(level2 - TICK_MS);
+        assertThat(fired).containsExactly("level1");
+        advanceTo(level2);
+        assertThat(fired).containsExactly("level1", "level2");
+    }
+
+    @Test
+    void parksDeadlinesBeyondTheTopLevelUntilTheyComeInRange() {
+        // The four levels span 2^24 ticks; this deadline is past that
+        long far = START_MS + (1L << 24) * TICK_MS + 12_345 * TICK_MS;
+        wheel.add("far", far);
+
+        advanceTo(far - TICK_MS);
+        assertThat(fired).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        advanceTo(far);
+        assertThat(fired).containsExactly("far");
+    }
+
+    @Test
+    void reAddingReplacesTheDeadline() {
+        assertThat(wheel.add("grant", START_MS + 5 * TICK_MS)).isTrue();
+        assertThat(wheel.add("grant", START_MS + 200 * TICK_MS)).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        advanceTo(START_MS + 199 * TICK_MS);
+        assertThat(fired).isEmpty();
+
+        advanceTo(START_MS + 200 * TICK_MS);
+        assertThat(fired).containsExactly("grant");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void reAddingWithAnEarlierDeadlineFiresOnce() {
+        wheel.add("grant", START_MS + 5_000 * TICK_MS);
+        wheel.add("grant", START_MS + 3 * TICK_MS);
+
+        advanceTo(START_MS + 3 * TICK_MS);
+        assertThat(fired).containsExactly("grant");
+
+        advanceTo(START_MS + 6_000 * TICK_MS);
+        assertThat(fired).containsExactly("grant");
+    }
+
+    @Test
+    void anItemCanBeScheduledAgainAfterItFired() {
+        wheel.add("grant", START_MS + TICK_MS);
+        advanceTo(START_MS + TICK_MS);
+
+        wheel.add("grant", START_MS + 70 * TICK_MS);
+        advanceTo(START_MS + 70 * TICK_MS);
+
+        assertThat(fired).containsExactly("grant", "grant");
+    }
+
+    private void advanceTo(long nowMs) {
+        wheel.advance(nowMs, fired::add);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.medical.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+/**
+ * Compares the previous Spring {@code JsonSerializer} path for {@link DocumentUploadedEvent}
+ * with {@link DomainEventCodec}. Run {@link #main} from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.medical.messaging.DomainEventCodecBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DomainEventCodecBenchmark {
+
+    private DocumentUploadedEvent event;
+    private JsonSerializer<DocumentUploadedEvent> jsonSerializer;
+    private JsonDeserializer<DocumentUploadedEvent> jsonDeserializer;
+    private DomainEventSerializer binarySerializer;
+    private DomainEventDeserializer binaryDeserializer;
+    private RecordHeaders jsonHeaders;
+    private RecordHeaders binaryHeaders;
+    private byte[] jsonPayload;
+    private byte[] binaryPayload;
+
+    @Setup
+    public void setUp() {
+        event = new DocumentUploadedEvent(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+            "uploads/reports/" + UUID.randomUUID() + ".pdf", OffsetDateTime.now());
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+        jsonSerializer = new JsonSerializer<>(mapper);
+        jsonDeserializer = new JsonDeserializer<>(DocumentUploadedEvent.class, mapper);
+        jsonDeserializer.addTrustedPackages("*");
+        binarySerializer = new DomainEventSerializer();
+        binaryDeserializer = new DomainEventDeserializer();
+
+        jsonHeaders = new RecordHeaders();
+        jsonPayload = jsonSerializer.serialize("document-uploaded", jsonHeaders, event);
+        binaryHeaders = new RecordHeaders();
+        binaryPayload = binarySerializer.serialize("document-uploaded", binaryHeaders, event);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return jsonSerializer.serialize("document-uploaded", new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public byte[] binarySerialize() {
+        return binarySerializer.serialize("document-uploaded", new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public Object jsonDeserialize() {
+        return jsonDeserializer.deserialize("document-uploaded", jsonHeaders, jsonPayload);
+    }
+
+    @Benchmark
+    public Object binaryDeserialize() {
+        return binaryDeserializer.deserialize("document-uploaded", binaryHeaders, binaryPayload);
+    }
+
+    public static void main(String[] args) throws Exception {
+        DomainEventCodecBenchmark sizes = new DomainEventCodecBenchmark();
+        sizes.setUp();
+        System.out.printf("Payload bytes: json=%d (+%d header bytes), binary=%d (+%d header bytes)%n",
+            sizes.jsonPayload.length, headerBytes(sizes.jsonHeaders),
+            sizes.binaryPayload.length, headerBytes(sizes.binaryHeaders));
+        new Runner(new OptionsBuilder().include(DomainEventCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static int headerBytes(RecordHeaders headers) {
+        int total = 0;
+        for (var header : headers) {
+            total += header.key().length() + header.value().length;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.medical.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+class DomainEventCodecTest {
+
+    private static final OffsetDateTime TIMESTAMP =
+        OffsetDateTime.of(2026, 3, 14, 9, 26, 53, 589_793_000, ZoneOffset.UTC);
+
+    private final DomainEventSerializer serializer = new DomainEventSerializer();
+    private final DomainEventDeserializer deserializer = new DomainEventDeserializer();
+
+    @Test
+    void documentUploadedRoundTripsWithAndWithoutOptionalFields() {
+        DocumentUploadedEvent full = new DocumentUploadedEvent(UUID.randomUUID(), UUID.randomUUID(),
+            UUID.randomUUID(), "s3://reports/scan.pdf", TIMESTAMP);
+        DocumentUploadedEvent bare = new DocumentUploadedEvent(UUID.randomUUID(), UUID.randomUUID(),
+            null, null, TIMESTAMP);
+
+        assertUploadedEquals((DocumentUploadedEvent) roundTrip(full), full);
+        assertUploadedEquals((DocumentUploadedEvent) roundTrip(bare), bare);
+    }
+
+    @Test
+    void entityChangeBatchRoundTrips() {
+        EntityChangeBatch batch = new EntityChangeBatch(UUID.randomUUID(), TIMESTAMP, List.of(
+            new EntityChange("prescription", UUID.randomUUID(), EntityChange.Operation.UPDATE, 1_700_000_000_000_123L,
+                List.of("status", "end_date")),
+            new EntityChange("emergency_access", UUID.randomUUID(), EntityChange.Operation.DELETE, 42L, List.of())));
+
+        EntityChangeBatch decoded = (EntityChangeBatch) roundTrip(batch);
+
+        assertThat(decoded.getEventId()).isEqualTo(batch.getEventId());
+        assertThat(decoded.getTimestamp()).isEqualTo(batch.getTimestamp());
+        assertThat(decoded.getChanges()).isEqualTo(batch.getChanges());
+    }
+
+    @Test
+    void headerlessSerializationFramesTheSchemaId() {
+        DocumentUploadedEvent event = new DocumentUploadedEvent(UUID.randomUUID(), UUID.randomUUID(),
+            UUID.randomUUID(), null, TIMESTAMP);
+
+        byte[] framed = serializer.serialize("document-uploaded", event);
+
+        assertThat(DomainEventCodec.isFramed(framed)).isTrue();
+        assertUploadedEquals((DocumentUploadedEvent) deserializer.deserialize("document-uploaded", framed), event);
+        assertUploadedEquals((DocumentUploadedEvent) deserializer.deserialize("document-uploaded", new RecordHeaders(),
+            framed), event);
+    }
+
+    @Test
+    void headerlessLegacyJsonIsStillRead() throws Exception {
+        DocumentUploadedEvent event = new DocumentUploadedEvent(UUID.randomUUID(), UUID.randomUUID(),
+            UUID.randomUUID(), "s3://reports/scan.pdf", TIMESTAMP);
+        byte[] json = new ObjectMapper().findAndRegisterModules().writeValueAsBytes(event);
+
+        DocumentUploadedEvent decoded = (DocumentUploadedEvent) deserializer.deserialize("document-uploaded", json);
+
+        assertThat(decoded.getReportId()).isEqualTo(event.getReportId());
+        assertThat(decoded.getStorageUrl()).isEqualTo(event.getStorageUrl());
+    }
+
+    @Test
+    void decodesVersionOneDocumentUploaded() {
+        UUID eventId = UUID.randomUUID();
+        UUID reportId = UUID.randomUUID();
+        // Written out field by field so a layout change that breaks old payloads fails here
+        DomainEventCodec.Writer out = new DomainEventCodec.Writer(64);
+        out.writeByte(1);
+        out.writeByte(0b10);
+        out.writeUuid(eventId);
+        out.writeUuid(reportId);
+        out.writeLong(DomainEventCodec.toEpochMicros(TIMESTAMP));
+        out.writeString("s3://reports/scan.pdf");
+
+        DocumentUploadedEvent decoded = (DocumentUploadedEvent) DomainEventCodec.decode(
+            DomainEventCodec.DOCUMENT_UPLOADED_SCHEMA, out.toByteArray());
+
+        assertThat(decoded.getEventId()).isEqualTo(eventId);
+        assertThat(decoded.getReportId()).isEqualTo(reportId);
+        assertThat(decoded.getPatientId()).isNull();
+        assertThat(decoded.getStorageUrl()).isEqualTo("s3://reports/scan.pdf");
+        assertThat(decoded.getTimestamp()).isEqualTo(TIMESTAMP);
+    }
+
+    @Test
+    void decodesVersionOneEntityChangeBatch() {
+        UUID eventId = UUID.randomUUID();
+        UUID entityId = UUID.randomUUID();
+
+        EntityChangeBatch decoded = (EntityChangeBatch) DomainEventCodec.decode(
+            DomainEventCodec.ENTITY_CHANGE_BATCH_SCHEMA, versionOneBatch(1, eventId, entityId).toByteArray());
+
+        assertThat(decoded.getEventId()).isEqualTo(eventId);
+        assertThat(decoded.getTimestamp()).isEqualTo(TIMESTAMP);
+        assertThat(decoded.getChanges()).containsExactly(
+            new EntityChange("medical_report", entityId, EntityChange.Operation.UPDATE, 100L, List.of("status")),
+            new EntityChange("medical_report", entityId, EntityChange.Operation.UPDATE, 101L, List.of("status")));
+    }
+
+    @Test
+    void ignoresFieldsAppendedByNewerVersions() {
+        UUID entityId = UUID.randomUUID();
+        DomainEventCodec.Writer out = versionOneBatch(9, UUID.randomUUID(), entityId);
+        out.writeString("a field this reader does not know");
+
+        EntityChangeBatch decoded = (EntityChangeBatch) DomainEventCodec.decode(
+            DomainEventCodec.ENTITY_CHANGE_BATCH_SCHEMA, out.toByteArray());
+
+        assertThat(decoded.getChanges()).extracting(EntityChange::version).containsExactly(100L, 101L);
+    }
+
+    @Test
+    void rejectsVersionZero() {
+        byte[] payload = "\0garbage".getBytes(StandardCharsets.US_ASCII);
+
+        assertThatThrownBy(() -> DomainEventCodec.decode(DomainEventCodec.DOCUMENT_UPLOADED_SCHEMA, payload))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static DomainEventCodec.Writer versionOneBatch(int version, UUID eventId, UUID entityId) {
+        DomainEventCodec.Writer out = new DomainEventCodec.Writer(64);
+        out.writeByte(version);
+        out.writeUuid(eventId);
+        out.writeLong(DomainEventCodec.toEpochMicros(TIMESTAMP));
+        out.writeVarint(2);
+        for (int i = 0; i < 2; i++) {
+            out.writeString("medical_report");
+            out.writeUuid(entityId);
+            out.writeByte(EntityChange.Operation.UPDATE.ordinal());
+            out.writeLong(100L + i);
+            out.writeVarint(1);
+            out.writeString("status");
+        }
+        return out;
+    }
+
+    private DomainEvent roundTrip(DomainEvent event) {
+        RecordHeaders headers = new RecordHeaders();
+        byte[] payload = serializer.serialize("topic", headers, event);
+        return deserializer.deserialize("topic", headers, payload);
+    }
+
+    private static void assertUploadedEquals(DocumentUploadedEvent actual, DocumentUploadedEvent expected) {
+        assertThat(actual.getEventId()).isEqualTo(expected.getEventId());
+        assertThat(actual.getReportId()).isEqualTo(expected.getReportId());
+        assertThat(actual.getPatientId()).isEqualTo(expected.getPatientId());
+        assertThat(actual.getStorageUrl()).isEqualTo(expected.getStorageUrl());
+        assertThat(actual.getTimestamp()).isEqualTo(expected.getTimestamp().truncatedTo(ChronoUnit.MICROS));
+    }
+}
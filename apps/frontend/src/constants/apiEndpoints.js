@@ -27,6 +27,7 @@ export const API_ENDPOINTS = {
   PRESCRIPTIONS: '/prescriptions',
   PRESCRIPTION_BY_ID: (id) => `/prescriptions/${id}`,
   PRESCRIPTION_REFILL: (id) => `/prescriptions/${id}/refill`,
+  PRESCRIPTION_CHECK: '/prescriptions/check',
 
   // Emergency Access
   EMERGENCY_REQUEST: '/emergency-access/request',
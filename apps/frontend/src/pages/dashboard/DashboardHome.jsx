@@ -41,7 +41,16 @@ const DashboardHome = () => {
             setRecentPatients(patientList)
             setStats(prev => ({ ...prev, totalPatients: totalCount }))
 
-            // You can add more API calls here for other stats
+            // Counts are kept in memory by the backend, so this never scans tables
+            const summaryResponse = await apiClient.get('/stats/summary')
+            const summary = summaryResponse.data
+            setStats(prev => ({
+                ...prev,
+                totalPatients: summary.patients?.total ?? prev.totalPatients,
+                recentReports: summary.reports?.total ?? prev.recentReports,
+                pendingAnalysis: summary.reports?.byStatus?.PROCESSING ?? prev.pendingAnalysis
+            }))
+
             setLoading(false)
         } catch (error) {
             console.error('Error fetching dashboard data:', error)
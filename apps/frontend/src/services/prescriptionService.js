@@ -37,6 +37,12 @@ const prescriptionService = {
     return response.data
   },
 
+  // Check a regimen for drug interactions, optionally against a patient's active prescriptions
+  checkInteractions: async (drugs, patientId) => {
+    const response = await apiClient.post('/prescriptions/check', { drugs, patientId })
+    return response.data
+  },
+
   // Mark as refilled
   markAsRefilled: async (id) => {
     const response = await apiClient.post(`/prescriptions/${id}/refill`)
@@ -0,0 +1,15 @@
+#!/bin/sh
+set -e
+
+# Clone the primary on first start; -R writes standby.signal and primary_conninfo
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+    until PGPASSWORD="$REPLICATION_PASSWORD" pg_basebackup -h "$PRIMARY_HOST" -U replicator \
+        -D "$PGDATA" -X stream -R -P; do
+        echo "Waiting for primary at $PRIMARY_HOST"
+        rm -rf "${PGDATA:?}"/*
+        sleep 2
+    done
+    chmod 700 "$PGDATA"
+fi
+
+exec postgres -c hot_standby=on